@@ -2,11 +2,18 @@ package com.example.demo.audit;
 
 import com.example.demo.audit.AuditEvent;
 import com.example.demo.audit.AuditEventRepository;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
 
 @RestController
@@ -14,9 +21,21 @@ import java.util.Optional;
 public class AdminAuditController {
 
     private final AuditEventRepository auditEventRepository;
+    private final AuditRetentionService auditRetentionService;
+    private final AuditQueryService auditQueryService;
+    private final AuditRollupService auditRollupService;
+    private final AuditExportService auditExportService;
 
-    public AdminAuditController(AuditEventRepository auditEventRepository) {
+    public AdminAuditController(AuditEventRepository auditEventRepository,
+                                AuditRetentionService auditRetentionService,
+                                AuditQueryService auditQueryService,
+                                AuditRollupService auditRollupService,
+                                AuditExportService auditExportService) {
         this.auditEventRepository = auditEventRepository;
+        this.auditRetentionService = auditRetentionService;
+        this.auditQueryService = auditQueryService;
+        this.auditRollupService = auditRollupService;
+        this.auditExportService = auditExportService;
     }
 
     // GET /api/admin/audit?q=&page=0&size=25
@@ -33,6 +52,118 @@ public class AdminAuditController {
         return ResponseEntity.ok(result);
     }
 
+    /**
+     * ✅ Structured, keyset-paged query (newest first):
+     * GET /api/admin/audit/events?actor=&method=&statusMin=&statusMax=&pathPrefix=&entityId=
+     *     &from=2026-01-01T00:00:00Z&to=...&term=&size=25[&cursor=...]
+     * Pass the previous page's nextCursor to continue; cost is flat no matter how deep you page.
+     */
+    @GetMapping("/events")
+    public ResponseEntity<?> query(
+            @RequestParam(required = false) String actor,
+            @RequestParam(required = false) String method,
+            @RequestParam(required = false) Integer statusMin,
+            @RequestParam(required = false) Integer statusMax,
+            @RequestParam(required = false) String pathPrefix,
+            @RequestParam(required = false) Long entityId,
+            @RequestParam(required = false) String from,
+            @RequestParam(required = false) String to,
+            @RequestParam(required = false) String term,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "25") int size
+    ) {
+        try {
+            AuditQuery query = new AuditQuery(
+                    actor, method, statusMin, statusMax, pathPrefix, entityId,
+                    parseInstant(from, "from"), parseInstant(to, "to"), term
+            );
+            return ResponseEntity.ok(auditQueryService.page(query, cursor, size));
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest().body(Map.of("message", ex.getMessage()));
+        }
+    }
+
+    /**
+     * ✅ Activity time series from the rollup tables:
+     * GET /api/admin/audit/stats?granularity=day|hour&from=&to=&actor=&groupBy=none|actor|method|route|status
+     * Defaults: last 7 days (day) or last 48 hours (hour).
+     */
+    @GetMapping("/stats")
+    public ResponseEntity<?> stats(
+            @RequestParam(defaultValue = "day") String granularity,
+            @RequestParam(required = false) String from,
+            @RequestParam(required = false) String to,
+            @RequestParam(required = false) String actor,
+            @RequestParam(defaultValue = "none") String groupBy
+    ) {
+        try {
+            boolean hourly;
+            if ("hour".equalsIgnoreCase(granularity)) hourly = true;
+            else if ("day".equalsIgnoreCase(granularity)) hourly = false;
+            else throw new IllegalArgumentException("granularity must be 'hour' or 'day'.");
+
+            AuditRollupService.GroupBy group;
+            try {
+                group = AuditRollupService.GroupBy.valueOf(groupBy.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("groupBy must be one of none, actor, method, route, status.");
+            }
+
+            Instant end = parseInstant(to, "to");
+            if (end == null) end = Instant.now();
+            Instant start = parseInstant(from, "from");
+            if (start == null) start = end.minus(hourly ? Duration.ofHours(48) : Duration.ofDays(7));
+
+            return ResponseEntity.ok(auditRollupService.stats(hourly, start, end, actor, group));
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest().body(Map.of("message", ex.getMessage()));
+        }
+    }
+
+    /**
+     * ✅ Streaming export (oldest first), no paging and no count query:
+     * GET /api/admin/audit/export?format=csv|ndjson&from=&to=
+     * Written straight to the response as rows come off the DB cursor.
+     */
+    @GetMapping("/export")
+    public void export(
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(required = false) String from,
+            @RequestParam(required = false) String to,
+            HttpServletResponse response
+    ) throws IOException {
+        AuditExportService.Format fmt;
+        Instant start;
+        Instant end;
+        try {
+            if ("csv".equalsIgnoreCase(format)) fmt = AuditExportService.Format.CSV;
+            else if ("ndjson".equalsIgnoreCase(format)) fmt = AuditExportService.Format.NDJSON;
+            else throw new IllegalArgumentException("format must be 'csv' or 'ndjson'.");
+            start = parseInstant(from, "from");
+            end = parseInstant(to, "to");
+        } catch (IllegalArgumentException ex) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, ex.getMessage());
+            return;
+        }
+
+        boolean csv = fmt == AuditExportService.Format.CSV;
+        response.setCharacterEncoding("UTF-8");
+        response.setContentType(csv ? "text/csv" : "application/x-ndjson");
+        response.setHeader("Content-Disposition",
+                "attachment; filename=\"audit-export." + (csv ? "csv" : "ndjson") + "\"");
+
+        auditExportService.export(response.getOutputStream(), fmt, start, end);
+    }
+
+    private static Instant parseInstant(String value, String name) {
+        if (value == null || value.isBlank()) return null;
+        try {
+            return Instant.parse(value.trim());
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid '" + name + "' (expected ISO-8601, e.g. 2026-01-01T00:00:00Z).");
+        }
+    }
+
     // GET /api/admin/audit/{id}
     @GetMapping("/{id}")
     public ResponseEntity<?> getOne(@PathVariable Long id) {
@@ -40,4 +171,14 @@ public class AdminAuditController {
         return opt.<ResponseEntity<?>>map(ResponseEntity::ok)
                 .orElseGet(() -> ResponseEntity.notFound().build());
     }
-}
\ No newline at end of file
+
+    // POST /api/admin/audit/purge  (manual retention run)
+    @PostMapping("/purge")
+    public ResponseEntity<?> purge() {
+        AuditRetentionService.PurgeResult result = auditRetentionService.purgeExpired();
+        if (result == null) {
+            return ResponseEntity.status(409).body(Map.of("message", "A purge is already running."));
+        }
+        return ResponseEntity.ok(result);
+    }
+}
@@ -1,8 +1,5 @@
 package com.example.demo.audit;
 
-import com.example.demo.model.Parent;
-import com.example.demo.repository.ParentRepository;
-import com.example.demo.security.JwtUtil;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -29,14 +26,10 @@ public class AdminAuditFilter extends OncePerRequestFilter {
             "/api/races"
     );
 
-    private final AuditEventRepository auditRepo;
-    private final JwtUtil jwtUtil;
-    private final ParentRepository parentRepository;
+    private final AuditService auditService;
 
-    public AdminAuditFilter(AuditEventRepository auditRepo, JwtUtil jwtUtil, ParentRepository parentRepository) {
-        this.auditRepo = auditRepo;
-        this.jwtUtil = jwtUtil;
-        this.parentRepository = parentRepository;
+    public AdminAuditFilter(AuditService auditService) {
+        this.auditService = auditService;
     }
 
     @Override
@@ -66,40 +59,14 @@ public class AdminAuditFilter extends OncePerRequestFilter {
             HttpServletResponse res,
             FilterChain chain
     ) throws ServletException, IOException {
-
-        String actorEmail = null;
-        String actorRole = null;
+        // ✅ Collect entity diffs made while handling this request
+        AuditChanges.open(req);
 
         try {
-            String auth = req.getHeader("Authorization");
-            if (auth != null && auth.startsWith("Bearer ")) {
-                String token = auth.substring(7);
-                actorEmail = jwtUtil.extractUsername(token);
-
-                if (actorEmail != null && !actorEmail.isBlank()) {
-                    Parent p = parentRepository.findByEmailIgnoreCase(actorEmail).orElse(null);
-                    if (p != null && p.getRole() != null) actorRole = p.getRole().name();
-                }
-            }
-
             chain.doFilter(req, res);
-
         } finally {
-            AuditEvent ev = new AuditEvent();
-            ev.setActorEmail(actorEmail);
-            ev.setActorRole(actorRole);
-            ev.setMethod(req.getMethod());
-            ev.setPath(req.getRequestURI());
-            ev.setStatus(res.getStatus());
-            ev.setUserAgent(safeUserAgent(req.getHeader("User-Agent")));
-
-            auditRepo.save(ev);
+            // ✅ Hand off to the async writer: no DB work on the request thread
+            auditService.logAdminWrite(req, res.getStatus(), null);
         }
     }
-
-    private String safeUserAgent(String ua) {
-        if (ua == null) return null;
-        ua = ua.trim();
-        return ua.length() > 300 ? ua.substring(0, 300) : ua;
-    }
-}
\ No newline at end of file
+}
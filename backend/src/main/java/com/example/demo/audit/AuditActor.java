@@ -0,0 +1,32 @@
+package com.example.demo.audit;
+
+import jakarta.persistence.*;
+
+/**
+ * Dictionary row: one per distinct (actor email, role) seen by the audit writer.
+ */
+@Entity
+@Table(
+        name = "audit_actor",
+        uniqueConstraints = @UniqueConstraint(name = "uk_audit_actor", columnNames = {"email", "role"})
+)
+public class AuditActor {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String email;
+
+    @Column(nullable = false, length = 50)
+    private String role;
+
+    public AuditActor() {}
+
+    public Long getId() { return id; }
+
+    public String getEmail() { return email; }
+
+    public String getRole() { return role; }
+}
@@ -0,0 +1,138 @@
+package com.example.demo.audit;
+
+import com.example.demo.model.Race;
+import com.example.demo.model.RaceResult;
+import com.example.demo.model.Racer;
+import com.example.demo.model.Registration;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.*;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.stereotype.Component;
+
+import java.time.temporal.TemporalAccessor;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Captures field-level diffs of admin-managed entities straight from Hibernate's flush state
+ * (the old/new property arrays it already has for dirty checking), so nothing is re-read.
+ * Only active inside a request AdminAuditFilter is auditing; everything else returns at once.
+ */
+@Component
+public class AuditChangeListener implements PostInsertEventListener, PostUpdateEventListener, PostDeleteEventListener {
+
+    private static final Set<Class<?>> TRACKED = Set.of(Racer.class, Race.class, Registration.class, RaceResult.class);
+
+    // Derived columns that would only repeat another field's change
+    private static final Set<String> IGNORED = Set.of("sortKey");
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    public AuditChangeListener(EntityManagerFactory entityManagerFactory) {
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    @PostConstruct
+    void register() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_INSERT, this);
+        registry.appendListeners(EventType.POST_UPDATE, this);
+        registry.appendListeners(EventType.POST_DELETE, this);
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        AuditChanges changes = collectorFor(event.getEntity());
+        if (changes == null) return;
+
+        EntityPersister persister = event.getPersister();
+        String[] names = persister.getPropertyNames();
+        Object[] state = event.getState();
+
+        Map<String, Object> fields = AuditChanges.fields();
+        for (int i = 0; i < names.length; i++) {
+            if (IGNORED.contains(names[i])) continue;
+            Object v = simple(state[i], event.getSession());
+            if (v != null) fields.put(names[i], v);
+        }
+        changes.add(typeOf(event.getEntity()), event.getId(), "I", fields);
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        AuditChanges changes = collectorFor(event.getEntity());
+        if (changes == null) return;
+
+        String[] names = event.getPersister().getPropertyNames();
+        Object[] state = event.getState();
+        Object[] old = event.getOldState();
+        int[] dirty = event.getDirtyProperties();
+
+        Map<String, Object> fields = AuditChanges.fields();
+        if (dirty != null) {
+            for (int i : dirty) putDiff(fields, names[i], old == null ? null : old[i], state[i], event.getSession());
+        } else {
+            // no dirty-check info (e.g. merge of a detached instance): compare what we have
+            for (int i = 0; i < names.length; i++) {
+                Object before = old == null ? null : old[i];
+                if (old == null || !Objects.equals(before, state[i])) {
+                    putDiff(fields, names[i], before, state[i], event.getSession());
+                }
+            }
+        }
+        if (!fields.isEmpty()) changes.add(typeOf(event.getEntity()), event.getId(), "U", fields);
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        AuditChanges changes = collectorFor(event.getEntity());
+        if (changes == null) return;
+        changes.add(typeOf(event.getEntity()), event.getId(), "D", null);
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+
+    // =========================================================
+    // Helpers
+    // =========================================================
+
+    private static AuditChanges collectorFor(Object entity) {
+        if (entity == null || !TRACKED.contains(entity.getClass())) return null;
+        return AuditChanges.current();
+    }
+
+    private static String typeOf(Object entity) {
+        return entity.getClass().getSimpleName();
+    }
+
+    private static void putDiff(Map<String, Object> fields, String name, Object before, Object after, EventSource session) {
+        if (IGNORED.contains(name)) return;
+        Object b = simple(before, session);
+        Object a = simple(after, session);
+        if (!Objects.equals(b, a)) fields.put(name, new Object[] { b, a });
+    }
+
+    // Scalars as-is, dates as ISO strings, associations as their id
+    private static Object simple(Object value, EventSource session) {
+        if (value == null) return null;
+        if (value instanceof String || value instanceof Number || value instanceof Boolean) return value;
+        if (value instanceof TemporalAccessor || value instanceof Enum<?>) return value.toString();
+        if (value instanceof java.util.Collection<?>) return null;
+        try {
+            Object id = session.getFactory().getPersistenceUnitUtil().getIdentifier(value);
+            if (id != null) return id;
+        } catch (RuntimeException ignored) {
+            // not an entity
+        }
+        return value.toString();
+    }
+}
@@ -0,0 +1,139 @@
+package com.example.demo.audit;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Field-level changes made during one audited request.
+ *
+ * AdminAuditFilter opens a collector on the request; AuditChangeListener (Hibernate
+ * post-insert/update/delete) and a few bulk JDBC paths append to it; the audit event
+ * stores the result in audit_event.changes.
+ *
+ * Encoding: compact JSON [{"t":"Racer","id":5,"op":"U","f":{"carNumber":["12","14"]}}]
+ * (inserts store plain values, updates [old,new] of dirty fields only, deletes just the id),
+ * prefixed by one format byte: RAW, or GZIP once the JSON is large enough to benefit.
+ */
+public final class AuditChanges {
+
+    public static final String ATTRIBUTE = AuditChanges.class.getName();
+
+    public static final int MAX_BYTES = 8_000;
+
+    private static final byte RAW = 0;
+    private static final byte GZIP = 1;
+    private static final int GZIP_THRESHOLD = 256;
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    public record Change(String t, Object id, String op, Map<String, Object> f) {}
+
+    private final List<Change> changes = new ArrayList<>();
+
+    // =========================================================
+    // Collector
+    // =========================================================
+
+    public static void open(HttpServletRequest req) {
+        req.setAttribute(ATTRIBUTE, new AuditChanges());
+    }
+
+    public static AuditChanges of(HttpServletRequest req) {
+        Object attr = req.getAttribute(ATTRIBUTE);
+        return (attr instanceof AuditChanges c) ? c : null;
+    }
+
+    // Collector of the audited request on this thread, or null (not audited / no request)
+    public static AuditChanges current() {
+        RequestAttributes attrs = RequestContextHolder.getRequestAttributes();
+        if (attrs == null) return null;
+        Object attr = attrs.getAttribute(ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        return (attr instanceof AuditChanges c) ? c : null;
+    }
+
+    public synchronized void add(String type, Object id, String op, Map<String, Object> fields) {
+        changes.add(new Change(type, id, op, (fields == null || fields.isEmpty()) ? null : fields));
+    }
+
+    public synchronized boolean isEmpty() {
+        return changes.isEmpty();
+    }
+
+    // =========================================================
+    // Codec
+    // =========================================================
+
+    public synchronized byte[] encode() {
+        if (changes.isEmpty()) return null;
+
+        byte[] bytes = encode(changes);
+        if (bytes.length <= MAX_BYTES) return bytes;
+
+        // Too big: keep which rows changed, drop the field values
+        List<Change> summary = new ArrayList<>(changes.size());
+        for (Change c : changes) summary.add(new Change(c.t(), c.id(), c.op(), null));
+        bytes = encode(summary);
+        return bytes.length <= MAX_BYTES ? bytes : null;
+    }
+
+    private static byte[] encode(List<Change> list) {
+        try {
+            byte[] json = MAPPER.writeValueAsBytes(list);
+            if (json.length < GZIP_THRESHOLD) return prefixed(RAW, json);
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream(json.length / 2);
+            out.write(GZIP);
+            try (GZIPOutputStream gz = new GZIPOutputStream(out)) {
+                gz.write(json);
+            }
+            byte[] zipped = out.toByteArray();
+            return zipped.length < json.length + 1 ? zipped : prefixed(RAW, json);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    public static JsonNode decode(byte[] stored) {
+        if (stored == null || stored.length < 2) return null;
+        try {
+            byte[] json;
+            if (stored[0] == GZIP) {
+                try (GZIPInputStream in = new GZIPInputStream(
+                        new ByteArrayInputStream(stored, 1, stored.length - 1))) {
+                    json = in.readAllBytes();
+                }
+            } else {
+                json = new byte[stored.length - 1];
+                System.arraycopy(stored, 1, json, 0, json.length);
+            }
+            return MAPPER.readTree(json);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private static byte[] prefixed(byte format, byte[] body) {
+        byte[] out = new byte[body.length + 1];
+        out[0] = format;
+        System.arraycopy(body, 0, out, 1, body.length);
+        return out;
+    }
+
+    // Convenience for callers building a field map
+    public static Map<String, Object> fields() {
+        return new LinkedHashMap<>();
+    }
+}
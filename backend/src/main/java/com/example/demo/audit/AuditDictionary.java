@@ -0,0 +1,109 @@
+package com.example.demo.audit;
+
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Value -> id lookups for the audit dictionary tables (actors, user agents, route templates).
+ *
+ * Ids are cached in memory the first time a value is written, so the steady state is a map
+ * hit per column; a miss does select-then-insert (and re-selects if another instance won
+ * the insert race). Only AuditWriter resolves ids, so there is no request-thread cost.
+ */
+@Component
+public class AuditDictionary {
+
+    // Distinct values are tiny in practice; this only guards against a UA flood
+    private static final int MAX_CACHED_PER_TABLE = 5_000;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final Map<String, Long> actorIds = new ConcurrentHashMap<>();
+    private final Map<String, Long> userAgentIds = new ConcurrentHashMap<>();
+    private final Map<String, Long> routeIds = new ConcurrentHashMap<>();
+
+    public AuditDictionary(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // =========================================================
+    // Write side (ids for a new audit row)
+    // =========================================================
+
+    public Long actorId(String email, String role) {
+        if (email == null || role == null) return null;
+        return resolve(actorIds, email + "\n" + role,
+                "select id from audit_actor where email = ? and role = ?",
+                "insert into audit_actor (email, role) values (?, ?)",
+                email, role);
+    }
+
+    public Long userAgentId(String userAgent) {
+        if (userAgent == null || userAgent.isBlank()) return null;
+        return resolve(userAgentIds, userAgent,
+                "select id from audit_user_agent where user_agent = ?",
+                "insert into audit_user_agent (user_agent) values (?)",
+                userAgent);
+    }
+
+    public Long routeId(String template) {
+        if (template == null || template.isBlank()) return null;
+        return resolve(routeIds, template,
+                "select id from audit_route where template = ?",
+                "insert into audit_route (template) values (?)",
+                template);
+    }
+
+    private Long resolve(Map<String, Long> cache, String key, String selectSql, String insertSql, Object... args) {
+        Long cached = cache.get(key);
+        if (cached != null) return cached;
+
+        Long id = selectId(selectSql, args);
+        if (id == null) {
+            try {
+                jdbcTemplate.update(insertSql, args);
+            } catch (DuplicateKeyException raced) {
+                // another instance inserted it first; fall through to the re-select
+            }
+            id = selectId(selectSql, args);
+        }
+
+        if (id != null) {
+            if (cache.size() >= MAX_CACHED_PER_TABLE) cache.clear();
+            cache.put(key, id);
+        }
+        return id;
+    }
+
+    private Long selectId(String sql, Object... args) {
+        List<Long> ids = jdbcTemplate.queryForList(sql, Long.class, args);
+        return ids.isEmpty() ? null : ids.get(0);
+    }
+
+    // =========================================================
+    // Read side (query filters; never inserts)
+    // =========================================================
+
+    // Every actor row for an email (one per role it has acted under)
+    public List<Long> findActorIds(String email) {
+        return jdbcTemplate.queryForList("select id from audit_actor where email = ?", Long.class, email);
+    }
+
+    public Long findRouteId(String template) {
+        Long cached = routeIds.get(template);
+        if (cached != null) return cached;
+        return selectId("select id from audit_route where template = ?", template);
+    }
+
+    public List<Long> findRouteIdsWithPrefix(String prefix) {
+        String escaped = prefix.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+        return jdbcTemplate.queryForList(
+                "select id from audit_route where template like ? escape '\\'",
+                Long.class, escaped + "%");
+    }
+}
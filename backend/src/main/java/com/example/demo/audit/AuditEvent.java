@@ -1,10 +1,33 @@
 package com.example.demo.audit;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.databind.JsonNode;
 import jakarta.persistence.*;
 import java.time.Instant;
 
+/**
+ * One audited admin write.
+ *
+ * Compact storage: actor, user agent and route template are ids into small dictionary
+ * tables (see AuditDictionary) and the concrete id from the path is kept in entity_id,
+ * so "all writes to racer 123" is an index lookup on (route_id, entity_id).
+ * The plain actorEmail / actorRole / path / userAgent columns only hold rows written
+ * before the dictionaries existed; new rows leave them null. The getters return the
+ * decoded value either way, so the JSON shape is unchanged.
+ */
 @Entity
-@Table(name = "audit_event")
+@Table(
+        name = "audit_event",
+        indexes = {
+                // ✅ Retention purge + newest-first listing
+                @Index(name = "idx_audit_created_at", columnList = "created_at, id"),
+                // ✅ Structured filters (each walks newest-first within the filter)
+                @Index(name = "idx_audit_actor_id_created", columnList = "actor_id, created_at"),
+                @Index(name = "idx_audit_route_entity", columnList = "route_id, entity_id, created_at"),
+                @Index(name = "idx_audit_method_created", columnList = "method, created_at"),
+                @Index(name = "idx_audit_status_created", columnList = "status, created_at")
+        }
+)
 public class AuditEvent {
 
     @Id
@@ -14,37 +37,71 @@ public class AuditEvent {
     @Column(nullable = false, updatable = false)
     private Instant createdAt = Instant.now();
 
-    @Column(nullable = false)
+    // ----- Dictionary-encoded columns (all rows written by AuditWriter) -----
+
+    @JsonIgnore
+    @ManyToOne(fetch = FetchType.EAGER)
+    @JoinColumn(name = "actor_id")
+    private AuditActor actor;
+
+    @JsonIgnore
+    @ManyToOne(fetch = FetchType.EAGER)
+    @JoinColumn(name = "route_id")
+    private AuditRoute route;
+
+    @Column(name = "entity_id")
+    private Long entityId;
+
+    @JsonIgnore
+    @ManyToOne(fetch = FetchType.EAGER)
+    @JoinColumn(name = "user_agent_id")
+    private AuditUserAgent userAgentRef;
+
+    // ----- Legacy plain-text columns (older rows; also the raw values of an unsaved event) -----
+
+    @Column(name = "actor_email")
     private String actorEmail;
 
-    @Column(nullable = false)
+    @Column(name = "actor_role")
     private String actorRole = "ADMIN";
 
+    @Column(name = "path", length = 500)
+    private String path;
+
+    @Column(name = "user_agent", length = 300)
+    private String userAgent;
+
+    // ----- Plain columns -----
+
     @Column(nullable = false)
     private String method;
 
-    @Column(nullable = false, length = 500)
-    private String path;
-
     @Column(nullable = false)
     private int status;
 
-    @Column(length = 300)
-    private String userAgent;
-
     @Column(length = 2000)
     private String note;
 
+    // Field-level diff of the entities this request changed (AuditChanges encoding)
+    @JsonIgnore
+    @Column(name = "changes", length = AuditChanges.MAX_BYTES)
+    private byte[] changeData;
+
+    // Normalized search tokens (see AuditSearchTokens); written by AuditWriter
+    @JsonIgnore
+    @Column(name = "search_tokens", length = AuditSearchTokens.MAX_LENGTH)
+    private String searchTokens;
+
     public AuditEvent() {}
 
     public Long getId() { return id; }
 
     public Instant getCreatedAt() { return createdAt; }
 
-    public String getActorEmail() { return actorEmail; }
+    public String getActorEmail() { return actor != null ? actor.getEmail() : actorEmail; }
     public void setActorEmail(String actorEmail) { this.actorEmail = actorEmail; }
 
-    public String getActorRole() { return actorRole; }
+    public String getActorRole() { return actor != null ? actor.getRole() : actorRole; }
     public void setActorRole(String actorRole) {
         this.actorRole = (actorRole == null || actorRole.isBlank()) ? "ADMIN" : actorRole;
     }
@@ -52,15 +109,25 @@ public class AuditEvent {
     public String getMethod() { return method; }
     public void setMethod(String method) { this.method = method; }
 
-    public String getPath() { return path; }
+    public String getPath() { return route != null ? route.expand(entityId) : path; }
     public void setPath(String path) { this.path = path; }
 
+    public Long getEntityId() { return entityId; }
+
     public int getStatus() { return status; }
     public void setStatus(int status) { this.status = status; }
 
-    public String getUserAgent() { return userAgent; }
+    public String getUserAgent() { return userAgentRef != null ? userAgentRef.getUserAgent() : userAgent; }
     public void setUserAgent(String userAgent) { this.userAgent = userAgent; }
 
     public String getNote() { return note; }
     public void setNote(String note) { this.note = note; }
-}
\ No newline at end of file
+
+    public byte[] getChangeData() { return changeData; }
+    public void setChangeData(byte[] changeData) { this.changeData = changeData; }
+
+    // Decoded for the API: [{ t, id, op, f }]
+    public JsonNode getChanges() { return AuditChanges.decode(changeData); }
+
+    public String getSearchTokens() { return searchTokens; }
+}
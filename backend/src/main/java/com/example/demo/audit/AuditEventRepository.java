@@ -3,23 +3,28 @@ package com.example.demo.audit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.transaction.annotation.Transactional;
 
-public interface AuditEventRepository extends JpaRepository<AuditEvent, Long> {
+public interface AuditEventRepository extends JpaRepository<AuditEvent, Long>, JpaSpecificationExecutor<AuditEvent> {
 
     @Query("""
         select a
         from AuditEvent a
+        left join a.actor ac
+        left join a.route rt
+        left join a.userAgentRef ua
         where (:q is null or :q = '' or
-               lower(a.actorEmail) like lower(concat('%', :q, '%')) or
-               lower(coalesce(a.actorRole, '')) like lower(concat('%', :q, '%')) or
-               lower(a.path) like lower(concat('%', :q, '%')) or
+               lower(coalesce(ac.email, a.actorEmail, '')) like lower(concat('%', :q, '%')) or
+               lower(coalesce(ac.role, a.actorRole, '')) like lower(concat('%', :q, '%')) or
+               lower(coalesce(rt.template, a.path, '')) like lower(concat('%', :q, '%')) or
+               cast(a.entityId as string) like concat('%', :q, '%') or
                lower(a.method) like lower(concat('%', :q, '%')) or
                cast(a.status as string) like concat('%', :q, '%') or
-               lower(coalesce(a.userAgent, '')) like lower(concat('%', :q, '%'))
+               lower(coalesce(ua.userAgent, a.userAgent, '')) like lower(concat('%', :q, '%'))
         )
         order by a.createdAt desc
     """)
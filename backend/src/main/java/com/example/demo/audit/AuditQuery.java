@@ -0,0 +1,18 @@
+package com.example.demo.audit;
+
+import java.time.Instant;
+
+/**
+ * Structured audit filters. Every field is optional; only the ones set become predicates.
+ */
+public record AuditQuery(
+        String actor,        // exact actor email (stored lower-case)
+        String method,       // POST / PUT / PATCH / DELETE
+        Integer statusMin,   // inclusive
+        Integer statusMax,   // inclusive
+        String pathPrefix,   // e.g. /api/admin/racers or /api/admin/racers/123
+        Long entityId,       // id in the path, e.g. 123 (pairs well with pathPrefix)
+        Instant from,        // inclusive
+        Instant to,          // exclusive
+        String term          // tokenized full-text term (all tokens must match)
+) {}
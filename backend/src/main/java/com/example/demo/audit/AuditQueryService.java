@@ -0,0 +1,235 @@
+package com.example.demo.audit;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Newest-first audit listing with keyset paging on (createdAt, id).
+ *
+ * Each page is "WHERE <filters> AND (createdAt, id) < cursor ORDER BY createdAt DESC, id DESC
+ * LIMIT size+1", so page 500 costs the same as page 0 and no count query is ever run.
+ * With a search term the page is driven from audit_search_token instead: one token's postings
+ * walked newest-first on idx_audit_token_created and joined to audit_event by id, with any
+ * further tokens checked per row on the (token, event_id) key.
+ */
+@Service
+public class AuditQueryService {
+
+    public static final int MAX_PAGE_SIZE = 100;
+
+    private static final Sort NEWEST_FIRST = Sort.by(
+            Sort.Order.desc("createdAt"),
+            Sort.Order.desc("id")
+    );
+
+    public record AuditPage(List<AuditEvent> items, String nextCursor) {}
+
+    private final AuditEventRepository auditEventRepository;
+    private final AuditDictionary dictionary;
+    private final EntityManager entityManager;
+
+    public AuditQueryService(AuditEventRepository auditEventRepository,
+                             AuditDictionary dictionary,
+                             EntityManager entityManager) {
+        this.auditEventRepository = auditEventRepository;
+        this.dictionary = dictionary;
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * @throws IllegalArgumentException for a malformed cursor
+     */
+    public AuditPage page(AuditQuery query, String cursor, int size) {
+        int safeSize = Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+
+        Cursor after = (cursor != null && !cursor.isBlank()) ? decodeCursor(cursor) : null;
+        Set<String> tokens = (query != null && notBlank(query.term()))
+                ? AuditSearchTokens.tokenize(query.term())
+                : Set.of();
+
+        // fetch one extra row to know whether another page exists
+        List<AuditEvent> rows;
+        if (!tokens.isEmpty()) {
+            rows = termPage(query, tokens, after, safeSize + 1);
+        } else {
+            Specification<AuditEvent> spec = matching(query);
+            if (after != null) spec = spec.and(before(after));
+            rows = auditEventRepository.findBy(spec,
+                    q -> q.sortBy(NEWEST_FIRST).limit(safeSize + 1).all());
+        }
+
+        if (rows.size() <= safeSize) return new AuditPage(rows, null);
+
+        List<AuditEvent> page = List.copyOf(rows.subList(0, safeSize));
+        AuditEvent last = page.get(page.size() - 1);
+        return new AuditPage(page, encodeCursor(last.getId(), last.getCreatedAt()));
+    }
+
+    // =========================================================
+    // Predicates
+    // =========================================================
+
+    private Specification<AuditEvent> matching(AuditQuery f) {
+        return (root, cq, cb) -> {
+            List<Predicate> where = new ArrayList<>();
+            if (f == null) return cb.conjunction();
+
+            if (notBlank(f.actor())) {
+                String email = f.actor().trim().toLowerCase(Locale.ROOT);
+                List<Long> actorIds = dictionary.findActorIds(email);
+                Predicate legacy = cb.equal(root.get("actorEmail"), email);
+                where.add(actorIds.isEmpty()
+                        ? legacy
+                        : cb.or(root.get("actor").get("id").in(actorIds), legacy));
+            }
+            if (notBlank(f.method())) {
+                where.add(cb.equal(root.get("method"), f.method().trim().toUpperCase(Locale.ROOT)));
+            }
+            if (f.statusMin() != null) {
+                where.add(cb.greaterThanOrEqualTo(root.get("status"), f.statusMin()));
+            }
+            if (f.statusMax() != null) {
+                where.add(cb.lessThanOrEqualTo(root.get("status"), f.statusMax()));
+            }
+            if (notBlank(f.pathPrefix())) {
+                where.add(pathPredicate(f.pathPrefix().trim(), root, cb));
+            }
+            if (f.entityId() != null) {
+                where.add(cb.equal(root.get("entityId"), f.entityId()));
+            }
+            if (f.from() != null) {
+                where.add(cb.greaterThanOrEqualTo(root.get("createdAt"), f.from()));
+            }
+            if (f.to() != null) {
+                where.add(cb.lessThan(root.get("createdAt"), f.to()));
+            }
+            // term: handled by termPage() through audit_search_token
+            return cb.and(where.toArray(new Predicate[0]));
+        };
+    }
+
+    // Keyset walk of one token's postings (the longest, usually the rarest), joined to the events
+    private List<AuditEvent> termPage(AuditQuery query, Set<String> tokens, Cursor after, int limit) {
+        String lead = tokens.stream().max(Comparator.comparingInt(String::length)).orElseThrow();
+
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<AuditEvent> cq = cb.createQuery(AuditEvent.class);
+        Root<AuditSearchToken> t = cq.from(AuditSearchToken.class);
+        Root<AuditEvent> e = cq.from(AuditEvent.class);
+
+        List<Predicate> where = new ArrayList<>();
+        where.add(cb.equal(t.get("token"), lead));
+        where.add(cb.equal(t.get("eventId"), e.get("id")));
+        where.add(matching(query).toPredicate(e, cq, cb));
+
+        for (String other : tokens) {
+            if (other.equals(lead)) continue;
+            Subquery<Long> has = cq.subquery(Long.class);
+            Root<AuditSearchToken> o = has.from(AuditSearchToken.class);
+            has.select(o.get("eventId")).where(
+                    cb.equal(o.get("token"), other),
+                    cb.equal(o.get("eventId"), e.get("id")));
+            where.add(cb.exists(has));
+        }
+
+        // Cursor and order on the posting's own columns, so the token index serves both
+        if (after != null) {
+            where.add(cb.or(
+                    cb.lessThan(t.get("createdAt"), after.createdAt()),
+                    cb.and(
+                            cb.equal(t.get("createdAt"), after.createdAt()),
+                            cb.lessThan(t.get("eventId"), after.id())
+                    )
+            ));
+        }
+
+        cq.select(e)
+                .where(where.toArray(new Predicate[0]))
+                .orderBy(cb.desc(t.get("createdAt")), cb.desc(t.get("eventId")));
+        return entityManager.createQuery(cq).setMaxResults(limit).getResultList();
+    }
+
+    /**
+     * A concrete path ("/api/admin/racers/123") becomes route template + entity id, so it is
+     * an exact (route_id, entity_id) lookup; a plain prefix matches every route template that
+     * starts with it. Rows from before the dictionaries are matched on the legacy path column.
+     */
+    private Predicate pathPredicate(String prefix, Root<AuditEvent> root, CriteriaBuilder cb) {
+        Predicate legacy = cb.like(root.get("path"), escapeLike(prefix) + "%", '\\');
+
+        AuditRoute.Normalized n = AuditRoute.normalize(prefix);
+        if (n.entityId() != null) {
+            Long routeId = dictionary.findRouteId(n.template());
+            if (routeId == null) return legacy;
+            return cb.or(
+                    cb.and(
+                            cb.equal(root.get("route").get("id"), routeId),
+                            cb.equal(root.get("entityId"), n.entityId())
+                    ),
+                    legacy
+            );
+        }
+
+        List<Long> routeIds = dictionary.findRouteIdsWithPrefix(prefix);
+        if (routeIds.isEmpty()) return legacy;
+        return cb.or(root.get("route").get("id").in(routeIds), legacy);
+    }
+
+    // (createdAt, id) strictly older than the cursor row
+    private static Specification<AuditEvent> before(Cursor c) {
+        return (root, cq, cb) -> cb.or(
+                cb.lessThan(root.get("createdAt"), c.createdAt()),
+                cb.and(
+                        cb.equal(root.get("createdAt"), c.createdAt()),
+                        cb.lessThan(root.get("id"), c.id())
+                )
+        );
+    }
+
+    private static boolean notBlank(String s) {
+        return s != null && !s.isBlank();
+    }
+
+    private static String escapeLike(String s) {
+        return s.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    // =========================================================
+    // Cursor = base64url("<id>:<createdAt ISO-8601>")
+    // =========================================================
+
+    private record Cursor(Long id, Instant createdAt) {}
+
+    private static String encodeCursor(Long id, Instant createdAt) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((id + ":" + createdAt).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Cursor decodeCursor(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int sep = raw.indexOf(':');
+            if (sep <= 0) throw new IllegalArgumentException("Invalid cursor.");
+            return new Cursor(Long.valueOf(raw.substring(0, sep)), Instant.parse(raw.substring(sep + 1)));
+        } catch (DateTimeParseException | IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor.");
+        }
+    }
+}
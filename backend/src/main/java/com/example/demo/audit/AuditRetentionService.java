@@ -0,0 +1,114 @@
+package com.example.demo.audit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Enforces app.audit.retention-days.
+ *
+ * Expired rows (and their search postings) are removed oldest-first in CHUNK_SIZE deletes,
+ * each its own short transaction (idx_audit_created_at makes the chunk select cheap), with a
+ * pause between chunks so the purge never holds long locks against live audit inserts.
+ */
+@Service
+public class AuditRetentionService {
+
+    private static final int CHUNK_SIZE = 1_000;
+    private static final long PAUSE_BETWEEN_CHUNKS_MS = 50;
+
+    private static final String SELECT_CHUNK_SQL = """
+        select id from audit_event
+        where created_at < ?
+        order by created_at, id
+        limit ?
+        """;
+
+    public record PurgeResult(
+            Instant cutoff,
+            int rowsPurged,
+            int chunks,
+            long tookMs
+    ) {}
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int retentionDays;
+    private final AtomicBoolean running = new AtomicBoolean(false);
+
+    public AuditRetentionService(
+            JdbcTemplate jdbcTemplate,
+            @Value("${app.audit.retention-days:30}") int retentionDays
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.retentionDays = retentionDays;
+    }
+
+    // ✅ Nightly at 03:30 server time
+    @Scheduled(cron = "${app.audit.retention-cron:0 30 3 * * *}")
+    public void scheduledPurge() {
+        PurgeResult result = purgeExpired();
+        if (result != null) {
+            System.out.println("Audit retention: purged " + result.rowsPurged() + " rows older than "
+                    + result.cutoff() + " in " + result.tookMs() + " ms (" + result.chunks() + " chunks)");
+        }
+    }
+
+    /**
+     * Deletes rows older than the retention window. Returns null if a purge is already running.
+     */
+    public PurgeResult purgeExpired() {
+        if (retentionDays <= 0) return new PurgeResult(null, 0, 0, 0); // retention disabled
+        if (!running.compareAndSet(false, true)) return null;
+
+        long started = System.nanoTime();
+        Instant cutoff = Instant.now().minus(Duration.ofDays(retentionDays));
+        Timestamp cutoffTs = Timestamp.from(cutoff);
+
+        int total = 0;
+        int chunks = 0;
+        try {
+            while (true) {
+                int deleted = deleteChunk(cutoffTs);
+                if (deleted <= 0) break;
+                total += deleted;
+                chunks++;
+                if (deleted < CHUNK_SIZE) break;
+
+                try {
+                    Thread.sleep(PAUSE_BETWEEN_CHUNKS_MS);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+        } finally {
+            running.set(false);
+        }
+
+        long tookMs = (System.nanoTime() - started) / 1_000_000;
+        return new PurgeResult(cutoff, total, chunks, tookMs);
+    }
+
+    // Search postings first: if we stop in between, the event is still there and gets re-indexed
+    private int deleteChunk(Timestamp cutoffTs) {
+        List<Long> ids = jdbcTemplate.queryForList(SELECT_CHUNK_SQL, Long.class, cutoffTs, CHUNK_SIZE);
+        if (ids.isEmpty()) return 0;
+
+        String in = String.join(",", Collections.nCopies(ids.size(), "?"));
+        Object[] args = ids.toArray();
+        jdbcTemplate.update("delete from audit_search_token where event_id in (" + in + ")", args);
+        return jdbcTemplate.update("delete from audit_event where id in (" + in + ")", args);
+    }
+
+    public int getRetentionDays() {
+        return retentionDays;
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.demo.audit;
+
+import jakarta.persistence.*;
+import java.time.Instant;
+
+/**
+ * Pre-aggregated audit counts: one row per (granularity, bucket, actor, method, route, status class).
+ * Maintained by AuditWriter as events are written; read by /api/admin/audit/stats.
+ * Missing actor/route ids are stored as 0 so the unique key never contains nulls.
+ */
+@Entity
+@Table(
+        name = "audit_rollup",
+        uniqueConstraints = @UniqueConstraint(
+                name = "uk_audit_rollup",
+                columnNames = {"granularity", "bucket_start", "actor_id", "method", "route_id", "status_class"}
+        ),
+        indexes = {
+                @Index(name = "idx_audit_rollup_bucket", columnList = "granularity, bucket_start")
+        }
+)
+public class AuditRollup {
+
+    public static final String HOURLY = "H";
+    public static final String DAILY = "D";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 1)
+    private String granularity;
+
+    @Column(name = "bucket_start", nullable = false)
+    private Instant bucketStart;
+
+    @Column(name = "actor_id", nullable = false)
+    private long actorId;
+
+    @Column(nullable = false, length = 10)
+    private String method;
+
+    @Column(name = "route_id", nullable = false)
+    private long routeId;
+
+    // 2 = 2xx, 3 = 3xx, 4 = 4xx, 5 = 5xx
+    @Column(name = "status_class", nullable = false)
+    private int statusClass;
+
+    @Column(name = "event_count", nullable = false)
+    private long eventCount;
+
+    public AuditRollup() {}
+
+    public Long getId() { return id; }
+    public String getGranularity() { return granularity; }
+    public Instant getBucketStart() { return bucketStart; }
+    public long getActorId() { return actorId; }
+    public String getMethod() { return method; }
+    public long getRouteId() { return routeId; }
+    public int getStatusClass() { return statusClass; }
+    public long getEventCount() { return eventCount; }
+}
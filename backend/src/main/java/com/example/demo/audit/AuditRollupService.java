@@ -0,0 +1,172 @@
+package com.example.demo.audit;
+
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+
+/**
+ * Hourly + daily audit rollups (UTC buckets).
+ *
+ * Write side: AuditWriter hands over each written batch; counts are folded in memory first,
+ * so a batch costs one UPDATE per distinct key (plus an INSERT for keys new to the bucket).
+ * Read side: stats come only from rollup rows, so the cost depends on the range and the
+ * handful of distinct actors/routes, never on how many raw events exist.
+ */
+@Service
+public class AuditRollupService {
+
+    public static final Duration MAX_HOURLY_RANGE = Duration.ofDays(31);
+    public static final Duration MAX_DAILY_RANGE = Duration.ofDays(366);
+
+    // One written audit row, as far as rollups care
+    public record Sample(Instant createdAt, Long actorId, String method, Long routeId, int status) {}
+
+    private record Key(String granularity, Instant bucket, long actorId, String method, long routeId, int statusClass) {}
+
+    // One point of a stats series (group is null when not grouped)
+    public record StatsRow(Instant bucket, String group, long total, long errors) {}
+
+    private static final String UPDATE_SQL = """
+        update audit_rollup set event_count = event_count + ?
+        where granularity = ? and bucket_start = ? and actor_id = ? and method = ? and route_id = ? and status_class = ?
+        """;
+
+    private static final String INSERT_SQL = """
+        insert into audit_rollup (granularity, bucket_start, actor_id, method, route_id, status_class, event_count)
+        values (?, ?, ?, ?, ?, ?, ?)
+        """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final AuditDictionary dictionary;
+
+    public AuditRollupService(JdbcTemplate jdbcTemplate, AuditDictionary dictionary) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.dictionary = dictionary;
+    }
+
+    // =========================================================
+    // Write side (AuditWriter thread)
+    // =========================================================
+
+    public void record(List<Sample> samples) {
+        if (samples == null || samples.isEmpty()) return;
+
+        Map<Key, Long> counts = new LinkedHashMap<>();
+        for (Sample s : samples) {
+            long actor = s.actorId() == null ? 0 : s.actorId();
+            long route = s.routeId() == null ? 0 : s.routeId();
+            String method = s.method() == null ? "" : s.method();
+            int statusClass = Math.max(0, Math.min(s.status() / 100, 9));
+
+            Instant hour = s.createdAt().truncatedTo(ChronoUnit.HOURS);
+            Instant day = s.createdAt().truncatedTo(ChronoUnit.DAYS);
+            counts.merge(new Key(AuditRollup.HOURLY, hour, actor, method, route, statusClass), 1L, Long::sum);
+            counts.merge(new Key(AuditRollup.DAILY, day, actor, method, route, statusClass), 1L, Long::sum);
+        }
+
+        List<Map.Entry<Key, Long>> entries = new ArrayList<>(counts.entrySet());
+        int[][] updated = jdbcTemplate.batchUpdate(UPDATE_SQL, entries, entries.size(), (ps, e) -> {
+            ps.setLong(1, e.getValue());
+            bindKey(ps, 2, e.getKey());
+        });
+        int[] rowCounts = updated.length == 0 ? new int[0] : updated[0];
+
+        // Keys whose bucket row doesn't exist yet (SUCCESS_NO_INFO counts as updated)
+        for (int i = 0; i < entries.size(); i++) {
+            if (i < rowCounts.length && rowCounts[i] != 0) continue;
+            Map.Entry<Key, Long> e = entries.get(i);
+            try {
+                jdbcTemplate.update(INSERT_SQL, ps -> {
+                    bindKey(ps, 1, e.getKey());
+                    ps.setLong(7, e.getValue());
+                });
+            } catch (DuplicateKeyException raced) {
+                // another instance created the bucket row first
+                jdbcTemplate.update(UPDATE_SQL, ps -> {
+                    ps.setLong(1, e.getValue());
+                    bindKey(ps, 2, e.getKey());
+                });
+            }
+        }
+    }
+
+    private static void bindKey(PreparedStatement ps, int from, Key k) throws SQLException {
+        ps.setString(from, k.granularity());
+        ps.setTimestamp(from + 1, Timestamp.from(k.bucket()));
+        ps.setLong(from + 2, k.actorId());
+        ps.setString(from + 3, k.method());
+        ps.setLong(from + 4, k.routeId());
+        ps.setInt(from + 5, k.statusClass());
+    }
+
+    // =========================================================
+    // Read side (/api/admin/audit/stats)
+    // =========================================================
+
+    public enum GroupBy { NONE, ACTOR, METHOD, ROUTE, STATUS }
+
+    /**
+     * Time series for [from, to) at hourly or daily granularity, optionally for one actor
+     * and optionally split by actor / method / route / status class.
+     *
+     * @throws IllegalArgumentException for an empty or too-wide range
+     */
+    public List<StatsRow> stats(boolean hourly, Instant from, Instant to, String actorEmail, GroupBy groupBy) {
+        if (!to.isAfter(from)) throw new IllegalArgumentException("'to' must be after 'from'.");
+        Duration max = hourly ? MAX_HOURLY_RANGE : MAX_DAILY_RANGE;
+        if (Duration.between(from, to).compareTo(max) > 0) {
+            throw new IllegalArgumentException("Range too wide (max " + max.toDays() + " days at this granularity).");
+        }
+
+        String groupExpr = switch (groupBy == null ? GroupBy.NONE : groupBy) {
+            case NONE -> "cast(null as varchar(500))";
+            case ACTOR -> "coalesce(a.email, 'unknown')";
+            case METHOD -> "r.method";
+            case ROUTE -> "coalesce(rt.template, 'unknown')";
+            case STATUS -> "concat(cast(r.status_class as varchar(1)), 'xx')";
+        };
+
+        StringBuilder sql = new StringBuilder()
+                .append("select r.bucket_start, ").append(groupExpr).append(" as grp, ")
+                .append("sum(r.event_count) as total, ")
+                .append("sum(case when r.status_class >= 4 then r.event_count else 0 end) as errors ")
+                .append("from audit_rollup r ")
+                .append("left join audit_actor a on a.id = r.actor_id ")
+                .append("left join audit_route rt on rt.id = r.route_id ")
+                .append("where r.granularity = ? and r.bucket_start >= ? and r.bucket_start < ? ");
+
+        List<Object> args = new ArrayList<>(List.of(
+                hourly ? AuditRollup.HOURLY : AuditRollup.DAILY,
+                Timestamp.from(from),
+                Timestamp.from(to)
+        ));
+
+        if (actorEmail != null && !actorEmail.isBlank()) {
+            List<Long> actorIds = dictionary.findActorIds(actorEmail.trim().toLowerCase(Locale.ROOT));
+            if (actorIds.isEmpty()) return List.of();
+            sql.append("and r.actor_id in (")
+                    .append(String.join(",", Collections.nCopies(actorIds.size(), "?")))
+                    .append(") ");
+            args.addAll(actorIds);
+        }
+
+        sql.append("group by r.bucket_start");
+        if (groupBy != null && groupBy != GroupBy.NONE) sql.append(", ").append(groupExpr);
+        sql.append(" order by r.bucket_start, grp");
+
+        return jdbcTemplate.query(sql.toString(), (rs, i) -> new StatsRow(
+                rs.getTimestamp(1).toInstant(),
+                rs.getString(2),
+                rs.getLong(3),
+                rs.getLong(4)
+        ), args.toArray());
+    }
+}
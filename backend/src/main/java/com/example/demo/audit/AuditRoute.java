@@ -0,0 +1,67 @@
+package com.example.demo.audit;
+
+import jakarta.persistence.*;
+
+/**
+ * Dictionary row: one per route template, e.g. "/api/admin/racers/{id}".
+ * The concrete id lives on the audit row (audit_event.entity_id).
+ */
+@Entity
+@Table(
+        name = "audit_route",
+        uniqueConstraints = @UniqueConstraint(name = "uk_audit_route", columnNames = "template")
+)
+public class AuditRoute {
+
+    public static final String ID_PLACEHOLDER = "{id}";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 500)
+    private String template;
+
+    public AuditRoute() {}
+
+    public Long getId() { return id; }
+
+    public String getTemplate() { return template; }
+
+    // Concrete path again (template + entity id)
+    public String expand(Long entityId) {
+        if (entityId == null || !template.contains(ID_PLACEHOLDER)) return template;
+        return template.replace(ID_PLACEHOLDER, String.valueOf(entityId));
+    }
+
+    // =========================================================
+    // Normalization: first all-digit segment becomes {id}
+    // /api/admin/racers/123 -> ("/api/admin/racers/{id}", 123)
+    // =========================================================
+
+    public record Normalized(String template, Long entityId) {}
+
+    public static Normalized normalize(String path) {
+        if (path == null || path.isEmpty()) return new Normalized(path, null);
+
+        String[] segments = path.split("/", -1);
+        Long entityId = null;
+        for (int i = 0; i < segments.length; i++) {
+            String s = segments[i];
+            if (entityId == null && isDigits(s) && s.length() <= 18) {
+                entityId = Long.valueOf(s);
+                segments[i] = ID_PLACEHOLDER;
+            }
+        }
+        return new Normalized(entityId == null ? path : String.join("/", segments), entityId);
+    }
+
+    private static boolean isDigits(String s) {
+        if (s.isEmpty()) return false;
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c < '0' || c > '9') return false;
+        }
+        return true;
+    }
+}
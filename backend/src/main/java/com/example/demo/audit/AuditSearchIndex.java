@@ -0,0 +1,128 @@
+package com.example.demo.audit;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Maintains audit_search_token (see AuditSearchToken): one posting per token per event.
+ * AuditWriter indexes each batch right after inserting it. At startup, events from before
+ * search_tokens existed get their tokens rebuilt from the legacy text columns, and events
+ * written before this table existed (or whose postings failed) are filled in from search_tokens.
+ */
+@Component
+public class AuditSearchIndex {
+
+    private static final int BACKFILL_CHUNK = 500;
+
+    private static final String INSERT_SQL =
+            "insert into audit_search_token (token, event_id, created_at) values (?, ?, ?)";
+
+    // One stored event to index
+    public record Posting(long eventId, Timestamp createdAt, String searchTokens) {}
+
+    private record Row(String token, long eventId, Timestamp createdAt) {}
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public AuditSearchIndex(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public void index(List<Posting> postings) {
+        List<Row> rows = new ArrayList<>();
+        for (Posting p : postings) {
+            for (String token : AuditSearchTokens.split(p.searchTokens())) {
+                rows.add(new Row(token, p.eventId(), p.createdAt()));
+            }
+        }
+        if (rows.isEmpty()) return;
+
+        jdbcTemplate.batchUpdate(INSERT_SQL, rows, rows.size(), (ps, r) -> {
+            ps.setString(1, r.token());
+            ps.setLong(2, r.eventId());
+            ps.setTimestamp(3, r.createdAt());
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        int legacy = backfillLegacy();
+        int total = backfillPostings();
+        if (legacy > 0) System.out.println("Audit search: rebuilt tokens for " + legacy + " legacy events");
+        if (total > 0) System.out.println("Audit search: indexed " + total + " older events");
+    }
+
+    // Events with no search_tokens at all: compute them, store them, then index them
+    private int backfillLegacy() {
+        long afterId = 0;
+        int total = 0;
+        try {
+            while (true) {
+                List<Posting> chunk = jdbcTemplate.query("""
+                        select e.id, e.created_at, e.actor_email, e.actor_role, e.method, e.status,
+                               e.path, e.user_agent, e.note
+                        from audit_event e
+                        where e.id > ? and e.search_tokens is null
+                        order by e.id
+                        limit ?
+                        """,
+                        (rs, i) -> new Posting(rs.getLong(1), rs.getTimestamp(2), AuditSearchTokens.forLegacyRow(
+                                rs.getString(3), rs.getString(4), rs.getString(5), rs.getInt(6),
+                                rs.getString(7), rs.getString(8), rs.getString(9))),
+                        afterId, BACKFILL_CHUNK);
+                if (chunk.isEmpty()) break;
+
+                List<Posting> tokenized = chunk.stream().filter(p -> p.searchTokens() != null).toList();
+                // Column first: if indexing fails, the postings pass below picks these up next start
+                jdbcTemplate.batchUpdate("update audit_event set search_tokens = ? where id = ?",
+                        tokenized, tokenized.size(), (ps, p) -> {
+                            ps.setString(1, p.searchTokens());
+                            ps.setLong(2, p.eventId());
+                        });
+                index(tokenized);
+
+                total += tokenized.size();
+                afterId = chunk.get(chunk.size() - 1).eventId();
+                if (chunk.size() < BACKFILL_CHUNK) break;
+            }
+        } catch (RuntimeException ex) {
+            System.err.println("Audit search legacy backfill stopped: " + ex.getMessage());
+        }
+        return total;
+    }
+
+    // Events with tokens but no postings yet, oldest first, in small chunks
+    private int backfillPostings() {
+        long afterId = 0;
+        int total = 0;
+        try {
+            while (true) {
+                List<Posting> chunk = jdbcTemplate.query("""
+                        select e.id, e.created_at, e.search_tokens
+                        from audit_event e
+                        where e.id > ? and e.search_tokens is not null
+                          and not exists (select 1 from audit_search_token t where t.event_id = e.id)
+                        order by e.id
+                        limit ?
+                        """,
+                        (rs, i) -> new Posting(rs.getLong(1), rs.getTimestamp(2), rs.getString(3)),
+                        afterId, BACKFILL_CHUNK);
+                if (chunk.isEmpty()) break;
+
+                index(chunk);
+                total += chunk.size();
+                afterId = chunk.get(chunk.size() - 1).eventId();
+                if (chunk.size() < BACKFILL_CHUNK) break;
+            }
+        } catch (RuntimeException ex) {
+            System.err.println("Audit search backfill stopped: " + ex.getMessage());
+        }
+        return total;
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.demo.audit;
+
+import jakarta.persistence.*;
+
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.Objects;
+
+/**
+ * One (token, event) posting for audit full-text search, written next to each audit_event row.
+ *
+ * idx_audit_token_created walks one token's events newest-first, so a term search is a
+ * keyset range scan joined to audit_event by id instead of a "% tok %" scan of every row.
+ * created_at is copied from the event so the walk needs nothing but this index.
+ */
+@Entity
+@Table(
+        name = "audit_search_token",
+        indexes = {
+                @Index(name = "idx_audit_token_created", columnList = "token, created_at, event_id"),
+                // ✅ Purge with the event + "which events have no postings yet" (backfill)
+                @Index(name = "idx_audit_token_event", columnList = "event_id")
+        }
+)
+@IdClass(AuditSearchToken.Key.class)
+public class AuditSearchToken {
+
+    @Id
+    @Column(length = 64)
+    private String token;
+
+    @Id
+    @Column(name = "event_id")
+    private Long eventId;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    protected AuditSearchToken() {}
+
+    public String getToken() { return token; }
+    public Long getEventId() { return eventId; }
+    public Instant getCreatedAt() { return createdAt; }
+
+    public static class Key implements Serializable {
+        private String token;
+        private Long eventId;
+
+        public Key() {}
+
+        public Key(String token, Long eventId) {
+            this.token = token;
+            this.eventId = eventId;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key k && Objects.equals(token, k.token) && Objects.equals(eventId, k.eventId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(token, eventId);
+        }
+    }
+}
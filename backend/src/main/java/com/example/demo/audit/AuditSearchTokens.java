@@ -0,0 +1,88 @@
+package com.example.demo.audit;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Normalized word tokens for audit full-text search.
+ *
+ * Stored as " tok1 tok2 ... " (space padded) in audit_event.search_tokens, and one row per
+ * token in audit_search_token, which is what term searches walk (see AuditSearchIndex).
+ * Emails are kept whole and also split into their parts.
+ */
+public final class AuditSearchTokens {
+
+    public static final int MAX_LENGTH = 1000;
+    private static final int MAX_TOKEN = 64;
+
+    private AuditSearchTokens() {}
+
+    public static String forEvent(AuditEvent ev) {
+        Set<String> tokens = new LinkedHashSet<>();
+        addEmail(tokens, ev.getActorEmail());
+        add(tokens, ev.getActorRole());
+        add(tokens, ev.getMethod());
+        add(tokens, String.valueOf(ev.getStatus()));
+        add(tokens, ev.getPath());
+        add(tokens, ev.getNote());
+        return join(tokens);
+    }
+
+    // Events stored before search_tokens existed: rebuilt from their legacy text columns
+    public static String forLegacyRow(String actorEmail, String actorRole, String method, int status,
+                                      String path, String userAgent, String note) {
+        Set<String> tokens = new LinkedHashSet<>();
+        addEmail(tokens, actorEmail);
+        add(tokens, actorRole);
+        add(tokens, method);
+        add(tokens, String.valueOf(status));
+        add(tokens, path);
+        add(tokens, userAgent);
+        add(tokens, note);
+        return join(tokens);
+    }
+
+    private static String join(Set<String> tokens) {
+        StringBuilder sb = new StringBuilder(" ");
+        for (String t : tokens) {
+            if (sb.length() + t.length() + 1 > MAX_LENGTH) break;
+            sb.append(t).append(' ');
+        }
+        return sb.length() > 1 ? sb.toString() : null;
+    }
+
+    // Query side: same normalization as the stored column
+    public static Set<String> tokenize(String text) {
+        Set<String> tokens = new LinkedHashSet<>();
+        if (text != null && text.contains("@")) addEmail(tokens, text.trim());
+        else add(tokens, text);
+        return tokens;
+    }
+
+    // Stored column back into its tokens
+    public static List<String> split(String stored) {
+        if (stored == null || stored.isBlank()) return List.of();
+        List<String> out = new ArrayList<>();
+        for (String t : stored.trim().split(" +")) {
+            if (!t.isEmpty()) out.add(t);
+        }
+        return out;
+    }
+
+    private static void addEmail(Set<String> out, String email) {
+        if (email == null || email.isBlank()) return;
+        String whole = email.trim().toLowerCase(Locale.ROOT);
+        if (whole.length() <= MAX_TOKEN && !whole.contains(" ")) out.add(whole);
+        add(out, whole);
+    }
+
+    private static void add(Set<String> out, String text) {
+        if (text == null || text.isBlank()) return;
+        for (String part : text.toLowerCase(Locale.ROOT).split("[^a-z0-9]+")) {
+            if (!part.isEmpty() && part.length() <= MAX_TOKEN) out.add(part);
+        }
+    }
+}
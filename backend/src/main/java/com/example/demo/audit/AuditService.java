@@ -1,36 +1,56 @@
 package com.example.demo.audit;
 
-import com.example.demo.model.Parent;
-import com.example.demo.repository.ParentRepository;
 import com.example.demo.security.JwtUtil;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.stereotype.Service;
 
+import java.util.Locale;
+
 @Service
 public class AuditService {
 
-    private final AuditEventRepository auditRepo;
+    private final AuditWriter auditWriter;
     private final JwtUtil jwtUtil;
-    private final ParentRepository parentRepository;
 
-    public AuditService(AuditEventRepository auditRepo, JwtUtil jwtUtil, ParentRepository parentRepository) {
-        this.auditRepo = auditRepo;
+    public AuditService(AuditWriter auditWriter, JwtUtil jwtUtil) {
+        this.auditWriter = auditWriter;
         this.jwtUtil = jwtUtil;
-        this.parentRepository = parentRepository;
     }
 
     public void logAdminWrite(HttpServletRequest req, int status, String note) {
+        AuditEvent ev = buildEvent(req, status);
+
+        // ✅ this is the important part:
+        ev.setNote(note);
+
+        // ✅ Field-level diff captured during the request (see AuditChangeListener)
+        AuditChanges changes = AuditChanges.of(req);
+        if (changes != null && !changes.isEmpty()) ev.setChangeData(changes.encode());
+
+        auditWriter.submit(ev);
+    }
+
+    /**
+     * Audit row for this request. Actor email + role come from the verified JWT claims
+     * (no DB lookup); the row is written later by AuditWriter.
+     */
+    public AuditEvent buildEvent(HttpServletRequest req, int status) {
         String actorEmail = null;
         String actorRole = null;
 
         String auth = req.getHeader("Authorization");
         if (auth != null && auth.startsWith("Bearer ")) {
-            String token = auth.substring(7);
-            actorEmail = jwtUtil.extractUsername(token);
-
-            if (actorEmail != null && !actorEmail.isBlank()) {
-                Parent p = parentRepository.findByEmailIgnoreCase(actorEmail).orElse(null);
-                if (p != null && p.getRole() != null) actorRole = p.getRole().name();
+            try {
+                // ✅ Reuse claims verified by JwtAuthenticationFilter (falls back to cached parse)
+                Claims claims = JwtUtil.claimsFrom(req);
+                if (claims == null) claims = jwtUtil.extractAllClaims(auth.substring(7));
+                actorEmail = claims.getSubject();
+                // stored lower-case so the actor filter is an indexed equality match
+                if (actorEmail != null) actorEmail = actorEmail.trim().toLowerCase(Locale.ROOT);
+                actorRole = claims.get("role", String.class);
+            } catch (Exception ignored) {
+                // invalid/expired token: still audit the attempt, just without an actor
             }
         }
 
@@ -40,11 +60,13 @@ public class AuditService {
         ev.setMethod(req.getMethod());
         ev.setPath(req.getRequestURI());
         ev.setStatus(status);
-        ev.setUserAgent(req.getHeader("User-Agent"));
-
-        // ✅ this is the important part:
-        ev.setNote(note);
+        ev.setUserAgent(safeUserAgent(req.getHeader("User-Agent")));
+        return ev;
+    }
 
-        auditRepo.save(ev);
+    private String safeUserAgent(String ua) {
+        if (ua == null) return null;
+        ua = ua.trim();
+        return ua.length() > 300 ? ua.substring(0, 300) : ua;
     }
-}
\ No newline at end of file
+}
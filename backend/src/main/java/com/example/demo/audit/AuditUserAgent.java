@@ -0,0 +1,27 @@
+package com.example.demo.audit;
+
+import jakarta.persistence.*;
+
+/**
+ * Dictionary row: one per distinct User-Agent string.
+ */
+@Entity
+@Table(
+        name = "audit_user_agent",
+        uniqueConstraints = @UniqueConstraint(name = "uk_audit_user_agent", columnNames = "user_agent")
+)
+public class AuditUserAgent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_agent", nullable = false, length = 300)
+    private String userAgent;
+
+    public AuditUserAgent() {}
+
+    public Long getId() { return id; }
+
+    public String getUserAgent() { return userAgent; }
+}
@@ -0,0 +1,292 @@
+package com.example.demo.audit;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Off-request audit pipeline.
+ *
+ * Request threads only enqueue (never block, never touch the DB). One background
+ * writer drains the queue and inserts JDBC batches once BATCH_SIZE events are waiting
+ * or FLUSH_INTERVAL_MS has passed, and drains whatever is left on shutdown.
+ * If the queue is full the event is dropped and counted rather than slowing the request.
+ */
+@Component
+public class AuditWriter {
+
+    private static final int QUEUE_CAPACITY = 10_000;
+    private static final int BATCH_SIZE = 200;
+    private static final long FLUSH_INTERVAL_MS = 1_000;
+
+    private static final String INSERT_SQL = """
+        insert into audit_event
+            (created_at, actor_id, route_id, entity_id, user_agent_id, method, status, note, search_tokens, changes)
+        values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+        """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final AuditDictionary dictionary;
+    private final AuditRollupService rollupService;
+    private final AuditSearchIndex searchIndex;
+    private final BlockingQueue<AuditEvent> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    private final AtomicLong dropped = new AtomicLong();
+    private final Thread worker;
+
+    private volatile boolean running = true;
+
+    public AuditWriter(JdbcTemplate jdbcTemplate,
+                       AuditDictionary dictionary,
+                       AuditRollupService rollupService,
+                       AuditSearchIndex searchIndex) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.dictionary = dictionary;
+        this.rollupService = rollupService;
+        this.searchIndex = searchIndex;
+        this.worker = new Thread(this::runLoop, "audit-writer");
+        this.worker.setDaemon(true);
+    }
+
+    // Schema first, then the thread: the first batch must never hit the old NOT NULLs
+    @PostConstruct
+    void start() {
+        relaxLegacyColumns();
+        worker.start();
+    }
+
+    // ✅ audit_event now stores actor/path/user agent as dictionary ids and no longer writes the
+    // legacy text columns; ddl-auto=update never relaxes NOT NULL, so it is done here once.
+    private void relaxLegacyColumns() {
+        for (String column : List.of("actor_email", "actor_role", "path")) {
+            try {
+                jdbcTemplate.execute("alter table audit_event alter column " + column + " drop not null");
+            } catch (RuntimeException ignored) {
+                // already nullable / column missing on a fresh schema
+            }
+        }
+    }
+
+    // ✅ Called on the request thread: O(1), no I/O
+    public void submit(AuditEvent ev) {
+        if (ev == null) return;
+        if (!queue.offer(ev)) dropped.incrementAndGet();
+    }
+
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    // =========================================================
+    // Background writer
+    // =========================================================
+
+    private void runLoop() {
+        List<AuditEvent> batch = new ArrayList<>(BATCH_SIZE);
+        long lastFlush = System.currentTimeMillis();
+
+        while (running) {
+            try {
+                long wait = Math.max(1, FLUSH_INTERVAL_MS - (System.currentTimeMillis() - lastFlush));
+                AuditEvent first = queue.poll(wait, TimeUnit.MILLISECONDS);
+                if (first != null) {
+                    batch.add(first);
+                    queue.drainTo(batch, BATCH_SIZE - batch.size());
+                }
+
+                // Timer starts with the oldest unwritten event
+                if (batch.isEmpty()) {
+                    lastFlush = System.currentTimeMillis();
+                    continue;
+                }
+
+                boolean due = System.currentTimeMillis() - lastFlush >= FLUSH_INTERVAL_MS;
+                if (batch.size() >= BATCH_SIZE || due) {
+                    write(batch);
+                    batch.clear();
+                    lastFlush = System.currentTimeMillis();
+                }
+            } catch (InterruptedException ie) {
+                // shutdown(): leave the interrupt cleared so the final JDBC drain can run
+                break;
+            } catch (RuntimeException ex) {
+                System.err.println("Audit writer error: " + ex.getMessage());
+                batch.clear();
+            }
+        }
+
+        // Final drain (whatever was still queued when we stopped)
+        queue.drainTo(batch);
+        for (int i = 0; i < batch.size(); i += BATCH_SIZE) {
+            write(batch.subList(i, Math.min(i + BATCH_SIZE, batch.size())));
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        worker.interrupt();
+        try {
+            worker.join(10_000);
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // =========================================================
+    // JDBC
+    // =========================================================
+
+    // One audit_event row, already dictionary-encoded
+    private record EncodedRow(
+            Timestamp createdAt,
+            Long actorId,
+            Long routeId,
+            Long entityId,
+            Long userAgentId,
+            String method,
+            int status,
+            String note,
+            String searchTokens,
+            byte[] changes
+    ) {}
+
+    private void write(List<AuditEvent> batch) {
+        if (batch.isEmpty()) return;
+
+        List<EncodedRow> rows = new ArrayList<>(batch.size());
+        for (AuditEvent ev : batch) {
+            try {
+                rows.add(encode(ev));
+            } catch (RuntimeException ex) {
+                System.err.println("Audit event dropped: " + ex.getMessage());
+            }
+        }
+
+        if (rows.isEmpty()) return;
+
+        List<EncodedRow> written = rows;
+        List<AuditSearchIndex.Posting> postings = new ArrayList<>(rows.size());
+        try {
+            KeyHolder keys = new GeneratedKeyHolder();
+            jdbcTemplate.batchUpdate(AuditWriter::prepareInsert, new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement ps, int i) throws SQLException {
+                    bind(ps, rows.get(i));
+                }
+
+                @Override
+                public int getBatchSize() {
+                    return rows.size();
+                }
+            }, keys);
+
+            List<Map<String, Object>> ids = keys.getKeyList();
+            for (int i = 0; i < rows.size() && i < ids.size(); i++) {
+                postings.add(posting(rows.get(i), idOf(ids.get(i))));
+            }
+        } catch (RuntimeException batchFailure) {
+            // One bad row must not lose the rest: retry row by row
+            written = new ArrayList<>(rows.size());
+            postings.clear();
+            for (EncodedRow row : rows) {
+                try {
+                    KeyHolder key = new GeneratedKeyHolder();
+                    jdbcTemplate.update(con -> {
+                        PreparedStatement ps = prepareInsert(con);
+                        bind(ps, row);
+                        return ps;
+                    }, key);
+                    written.add(row);
+                    if (!key.getKeyList().isEmpty()) postings.add(posting(row, idOf(key.getKeyList().get(0))));
+                } catch (RuntimeException rowFailure) {
+                    System.err.println("Audit event dropped: " + rowFailure.getMessage());
+                }
+            }
+        }
+
+        // ✅ Term-search postings for the rows that made it (missed ones are backfilled at startup)
+        try {
+            searchIndex.index(postings);
+        } catch (RuntimeException ex) {
+            System.err.println("Audit search index update failed: " + ex.getMessage());
+        }
+
+        // ✅ Fold the rows that made it into the hourly/daily rollups
+        try {
+            rollupService.record(written.stream()
+                    .map(r -> new AuditRollupService.Sample(
+                            r.createdAt().toInstant(), r.actorId(), r.method(), r.routeId(), r.status()))
+                    .toList());
+        } catch (RuntimeException ex) {
+            System.err.println("Audit rollup update failed: " + ex.getMessage());
+        }
+    }
+
+    private EncodedRow encode(AuditEvent ev) {
+        String email = ev.getActorEmail() != null ? ev.getActorEmail() : "anonymous";
+        AuditRoute.Normalized route = AuditRoute.normalize(truncate(ev.getPath(), 500));
+
+        return new EncodedRow(
+                Timestamp.from(ev.getCreatedAt()),
+                dictionary.actorId(email, ev.getActorRole()),
+                dictionary.routeId(route.template()),
+                route.entityId(),
+                dictionary.userAgentId(truncate(ev.getUserAgent(), 300)),
+                ev.getMethod(),
+                ev.getStatus(),
+                truncate(ev.getNote(), 2000),
+                AuditSearchTokens.forEvent(ev),
+                ev.getChangeData()
+        );
+    }
+
+    private static PreparedStatement prepareInsert(Connection con) throws SQLException {
+        return con.prepareStatement(INSERT_SQL, new String[] { "id" });
+    }
+
+    private static AuditSearchIndex.Posting posting(EncodedRow row, long id) {
+        return new AuditSearchIndex.Posting(id, row.createdAt(), row.searchTokens());
+    }
+
+    // Generated-key maps are keyed "id" or "ID" depending on the driver
+    private static long idOf(Map<String, Object> key) {
+        for (Object v : key.values()) {
+            if (v instanceof Number n) return n.longValue();
+        }
+        throw new IllegalStateException("No generated audit_event id in " + key);
+    }
+
+    private static void bind(PreparedStatement ps, EncodedRow row) throws SQLException {
+        ps.setTimestamp(1, row.createdAt());
+        ps.setObject(2, row.actorId(), Types.BIGINT);
+        ps.setObject(3, row.routeId(), Types.BIGINT);
+        ps.setObject(4, row.entityId(), Types.BIGINT);
+        ps.setObject(5, row.userAgentId(), Types.BIGINT);
+        ps.setString(6, row.method());
+        ps.setInt(7, row.status());
+        ps.setString(8, row.note());
+        ps.setString(9, row.searchTokens());
+        ps.setBytes(10, row.changes());
+    }
+
+    private static String truncate(String s, int max) {
+        return (s != null && s.length() > max) ? s.substring(0, max) : s;
+    }
+}
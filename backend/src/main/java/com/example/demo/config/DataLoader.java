@@ -1,10 +1,15 @@
 package com.example.demo.config;
 
 import com.example.demo.model.Sponsor;
+import com.example.demo.repository.RacerRepository;
 import com.example.demo.repository.SponsorRepository;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
 
 @Configuration
 public class DataLoader {
@@ -34,4 +39,69 @@ public class DataLoader {
             }
         };
     }
-}
\ No newline at end of file
+
+    // ✅ Fill racer.sort_key for rows that predate it (admin list ordering/paging)
+    @Bean
+    CommandLineRunner backfillRacerSortKeys(RacerRepository racerRepository) {
+        return args -> racerRepository.backfillSortKeys();
+    }
+
+    // ✅ racer.sort_key is keyset-paged with "<"/">" and uses \u0001 as its field separator, so it
+    // must compare by code point. Postgres locale collations (en_US.UTF-8, ...) ignore control
+    // characters and compare in several passes, which would reorder pages; pin the column to "C".
+    // H2 already compares strings by code point. Changing the type rebuilds idx_racer_sort_key.
+    @Bean
+    CommandLineRunner pinRacerSortKeyCollation(JdbcTemplate jdbcTemplate) {
+        return args -> {
+            String product = jdbcTemplate.execute(
+                    (ConnectionCallback<String>) con -> con.getMetaData().getDatabaseProductName());
+            if (!"PostgreSQL".equalsIgnoreCase(product)) return;
+
+            List<String> current = jdbcTemplate.queryForList("""
+                    select collation_name from information_schema.columns
+                    where table_schema = current_schema() and table_name = 'racer' and column_name = 'sort_key'
+                    """, String.class);
+            if (current.isEmpty() || "C".equals(current.get(0))) return;
+
+            jdbcTemplate.execute("alter table racer alter column sort_key type varchar(400) collate \"C\"");
+            System.out.println("racer.sort_key now uses the C collation.");
+        };
+    }
+
+    // ✅ registration (racer_id, race_id) became unique. ddl-auto=update can't add the
+    // constraint while old duplicates exist, so keep the first of each pair and add it here.
+    @Bean
+    CommandLineRunner enforceUniqueRegistrations(JdbcTemplate jdbcTemplate) {
+        return args -> {
+            int removed = jdbcTemplate.update("""
+                delete from registration
+                where id not in (
+                    select keep_id from (
+                        select min(id) as keep_id from registration group by racer_id, race_id
+                    ) keepers
+                )
+                """);
+            if (removed > 0) System.out.println("Removed " + removed + " duplicate registrations.");
+            try {
+                jdbcTemplate.execute("alter table registration add constraint uk_registration_racer_race unique (racer_id, race_id)");
+            } catch (RuntimeException ignored) {
+                // already present (created by Hibernate or a previous start)
+            }
+        };
+    }
+
+    // ✅ registration.status is new; rows that predate it already hold a seat
+    @Bean
+    CommandLineRunner backfillRegistrationStatus(JdbcTemplate jdbcTemplate) {
+        return args -> {
+            int updated = jdbcTemplate.update("update registration set status = 'REGISTERED' where status is null");
+            if (updated > 0) System.out.println("Backfilled status on " + updated + " registrations.");
+        };
+    }
+
+    // ✅ Gallery feed pages on (uploaded_at, id); a null timestamp would fall out of every page
+    @Bean
+    CommandLineRunner backfillPhotoUploadedAt(JdbcTemplate jdbcTemplate) {
+        return args -> jdbcTemplate.update("update photo set uploaded_at = current_timestamp where uploaded_at is null");
+    }
+}
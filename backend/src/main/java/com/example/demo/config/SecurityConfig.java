@@ -55,6 +55,7 @@ public class SecurityConfig {
                         .requestMatchers(HttpMethod.GET,
                                 "/api/races/**",
                                 "/api/results/**",
+                                "/api/standings/**",
                                 "/api/sponsors/**",
                                 "/api/photos/**",
                                 "/api/gallery/**"
@@ -75,6 +76,10 @@ public class SecurityConfig {
                         // ✅ Admin endpoints require ADMIN role ONLY
                         .requestMatchers("/api/admin/**").hasRole("ADMIN")
 
+                        // ✅ Sponsor writes are admin-only (GETs are public above); the server
+                        // fetches the logo URL, so it must not be settable by any logged-in user
+                        .requestMatchers("/api/sponsors/**").hasRole("ADMIN")
+
                         // ✅ Anything else under /api requires login
                         .requestMatchers("/api/**").authenticated()
 
@@ -97,7 +102,7 @@ public class SecurityConfig {
         CorsConfiguration config = new CorsConfiguration();
         config.setAllowedOriginPatterns(List.of(allowedOriginsProp.split(",")));
         config.setAllowedMethods(List.of("GET", "POST", "PUT", "PATCH", "DELETE", "OPTIONS"));
-        config.setAllowedHeaders(List.of("Authorization", "Content-Type", "X-Requested-With"));
+        config.setAllowedHeaders(List.of("Authorization", "Content-Type", "X-Requested-With", "Idempotency-Key"));
         config.setAllowCredentials(true);
 
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
@@ -1,6 +1,9 @@
 package com.example.demo.controller;
 
 import com.example.demo.dto.AdminCreateRacerRequest;
+import com.example.demo.dto.RacerDivisionCount;
+import com.example.demo.dto.RacerListRow;
+import com.example.demo.dto.RacerSearchDto;
 import com.example.demo.model.Parent;
 import com.example.demo.model.Racer;
 import com.example.demo.repository.ParentRacerLinkRepository;
@@ -8,13 +11,22 @@ import com.example.demo.repository.ParentRepository;
 import com.example.demo.repository.RaceResultRepository;
 import com.example.demo.repository.RacerRepository;
 import com.example.demo.repository.RegistrationRepository;
+import com.example.demo.service.RacerAccessIndex;
+import com.example.demo.service.RaceCapacityService;
+import com.example.demo.service.RacerSearchIndex;
+import com.example.demo.service.RosterReadModel;
+import com.example.demo.service.StandingsService;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.http.ResponseEntity;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.Comparator;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 
 @RestController
@@ -27,6 +39,11 @@ public class AdminRacersController {
     private final RegistrationRepository registrationRepository;
     private final RaceResultRepository raceResultRepository;
     private final ParentRacerLinkRepository parentRacerLinkRepository;
+    private final StandingsService standingsService;
+    private final RacerAccessIndex racerAccessIndex;
+    private final RacerSearchIndex racerSearchIndex;
+    private final RaceCapacityService raceCapacityService;
+    private final RosterReadModel rosterReadModel;
 
     // ✅ Canonical division strings (MUST match frontend values)
     private static final String DIV_3 = "3 Year Old Division";
@@ -40,24 +57,29 @@ public class AdminRacersController {
             ParentRepository parentRepository,
             RegistrationRepository registrationRepository,
             RaceResultRepository raceResultRepository,
-            ParentRacerLinkRepository parentRacerLinkRepository
+            ParentRacerLinkRepository parentRacerLinkRepository,
+            StandingsService standingsService,
+            RacerAccessIndex racerAccessIndex,
+            RacerSearchIndex racerSearchIndex,
+            RaceCapacityService raceCapacityService,
+            RosterReadModel rosterReadModel
     ) {
         this.racerRepository = racerRepository;
         this.parentRepository = parentRepository;
         this.registrationRepository = registrationRepository;
         this.raceResultRepository = raceResultRepository;
         this.parentRacerLinkRepository = parentRacerLinkRepository;
+        this.standingsService = standingsService;
+        this.racerAccessIndex = racerAccessIndex;
+        this.racerSearchIndex = racerSearchIndex;
+        this.raceCapacityService = raceCapacityService;
+        this.rosterReadModel = rosterReadModel;
     }
 
-    public record RacerSearchDto(
-            Long id,
-            String firstName,
-            String lastName,
-            String carNumber,
-            Integer age,
-            String division,     // ✅ NEW
-            String parentEmail
-    ) {}
+    // One keyset page of the admin list; nextCursor is null on the last page
+    public record RacerPage(List<RacerSearchDto> items, String nextCursor) {}
+
+    private static final int MAX_PAGE_SIZE = 200;
 
     private String normalize(String s) {
         return s == null ? "" : s.trim();
@@ -118,46 +140,87 @@ public class AdminRacersController {
     // -----------------------
     // GET: list/search
     // -----------------------
+    /**
+     * Un-paged shape kept for older clients, but bounded: only the first MAX_PAGE_SIZE racers.
+     * The admin pages use ?size=&cursor= below (and /division-counts for totals).
+     */
     @GetMapping
     public List<RacerSearchDto> listAll() {
-        return racerRepository.findAll()
-                .stream()
-                .filter(r -> r.getParent() != null)
-                .sorted(Comparator
-                        .comparing((Racer r) -> r.getLastName() == null ? "" : r.getLastName(), String.CASE_INSENSITIVE_ORDER)
-                        .thenComparing(r -> r.getFirstName() == null ? "" : r.getFirstName(), String.CASE_INSENSITIVE_ORDER)
-                        .thenComparing(r -> r.getCarNumber() == null ? "" : r.getCarNumber(), String.CASE_INSENSITIVE_ORDER)
-                )
-                .map(r -> new RacerSearchDto(
-                        r.getId(),
-                        r.getFirstName(),
-                        r.getLastName(),
-                        r.getCarNumber(),
-                        r.getAge(),
-                        r.getDivision(), // ✅ NEW
-                        r.getParent() != null ? r.getParent().getEmail() : null
-                ))
+        // Sorted by the DB on idx_racer_sort_key; no entity/parent loading
+        return racerRepository.findAdminRows(PageRequest.of(0, MAX_PAGE_SIZE)).stream()
+                .map(RacerListRow::toSearchDto)
                 .toList();
     }
 
+    // ✅ Dashboard totals: GET /api/admin/racers/division-counts -> [{ division, age, count }]
+    @GetMapping("/division-counts")
+    public List<RacerDivisionCount> divisionCounts() {
+        return racerRepository.countAdminRowsByDivision();
+    }
+
+    /**
+     * ✅ Keyset-paged list: GET /api/admin/racers?size=50[&cursor=...]
+     * Pass the previous page's nextCursor to continue. Cost is flat no matter how deep you page.
+     */
+    @GetMapping(params = "size")
+    public ResponseEntity<?> listPage(
+            @RequestParam("size") int size,
+            @RequestParam(value = "cursor", required = false) String cursor
+    ) {
+        int safeSize = Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+        // fetch one extra row to know whether another page exists
+        Pageable limit = PageRequest.of(0, safeSize + 1);
+
+        List<RacerListRow> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = racerRepository.findAdminRows(limit);
+        } else {
+            String[] decoded = decodeCursor(cursor);
+            if (decoded == null) {
+                return ResponseEntity.badRequest().body(Map.of("message", "Invalid cursor."));
+            }
+            rows = racerRepository.findAdminRowsAfter(decoded[1], Long.valueOf(decoded[0]), limit);
+        }
+
+        if (rows.size() <= safeSize) {
+            return ResponseEntity.ok(new RacerPage(rows.stream().map(RacerListRow::toSearchDto).toList(), null));
+        }
+
+        List<RacerListRow> page = rows.subList(0, safeSize);
+        RacerListRow last = page.get(page.size() - 1);
+        // ✅ The stored key, exactly as the DB compared it (not re-derived in Java)
+        String next = encodeCursor(last.id(), last.sortKey());
+        return ResponseEntity.ok(new RacerPage(page.stream().map(RacerListRow::toSearchDto).toList(), next));
+    }
+
+    // cursor = base64url("<id>:<sortKey>")
+    private static String encodeCursor(Long id, String sortKey) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((id + ":" + sortKey).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String[] decodeCursor(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int sep = raw.indexOf(':');
+            if (sep <= 0) return null;
+            Long.parseLong(raw.substring(0, sep));
+            return new String[] { raw.substring(0, sep), raw.substring(sep + 1) };
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    // Typeahead: served from the in-memory trigram index, ordered like the list
     @GetMapping("/search")
-    public List<RacerSearchDto> search(@RequestParam("q") String q) {
+    public List<RacerSearchDto> search(
+            @RequestParam("q") String q,
+            @RequestParam(value = "limit", defaultValue = "50") int limit
+    ) {
         String term = (q == null) ? "" : q.trim();
         if (term.isBlank()) return List.of();
 
-        return racerRepository.searchAdminRacers(term)
-                .stream()
-                .filter(r -> r.getParent() != null)
-                .map(r -> new RacerSearchDto(
-                        r.getId(),
-                        r.getFirstName(),
-                        r.getLastName(),
-                        r.getCarNumber(),
-                        r.getAge(),
-                        r.getDivision(), // ✅ NEW
-                        r.getParent() != null ? r.getParent().getEmail() : null
-                ))
-                .toList();
+        return racerSearchIndex.search(term, Math.min(Math.max(limit, 1), MAX_PAGE_SIZE));
     }
 
     // ------------------------------------------------------------------
@@ -230,6 +293,8 @@ public class AdminRacersController {
         }
 
         Racer saved = racerRepository.save(r);
+        racerAccessIndex.parentChanged(guardian.getId());
+        racerSearchIndex.racerSaved(saved);
         return ResponseEntity.ok(saved);
     }
 
@@ -288,6 +353,7 @@ public class AdminRacersController {
         existing.setCarNumber(carNumber);
 
         // ✅ NEW: division updated + rules enforced
+        String previousDivision = existing.getDivision();
         try {
             existing.setDivision(validateAndResolveDivision(age, updated.getDivision()));
         } catch (IllegalArgumentException ex) {
@@ -295,6 +361,14 @@ public class AdminRacersController {
         }
 
         Racer saved = racerRepository.save(existing);
+        // ✅ Seats are counted per division: recount this racer's races under the new one
+        if (!Objects.equals(RaceCapacityService.normalize(previousDivision),
+                RaceCapacityService.normalize(saved.getDivision()))) {
+            raceCapacityService.racerDivisionChanged(saved.getId());
+        }
+        standingsService.racerRenamed(saved);
+        racerSearchIndex.racerSaved(saved);
+        rosterReadModel.racerSaved(saved);
         return ResponseEntity.ok(saved);
     }
 
@@ -308,11 +382,18 @@ public class AdminRacersController {
         Optional<Racer> existingOpt = racerRepository.findById(id);
         if (existingOpt.isEmpty()) return ResponseEntity.notFound().build();
 
+        List<Long> registeredRaceIds = registrationRepository.findRaceIdsByRacerId(id);
+
         registrationRepository.deleteByRacerId(id);
         raceResultRepository.deleteByRacerId(id);
         parentRacerLinkRepository.deleteByRacerId(id);
 
         racerRepository.deleteById(id);
+        standingsService.racerRemoved(id);
+        racerAccessIndex.racerRemoved(id);
+        racerSearchIndex.racerRemoved(id);
+        rosterReadModel.racerRemoved(id);
+        raceCapacityService.registrationsRemoved(registeredRaceIds);
 
         return ResponseEntity.ok(Map.of("message", "Racer deleted successfully."));
     }
@@ -1,23 +1,40 @@
 package com.example.demo.controller;
 
 import com.example.demo.model.Race;
+import com.example.demo.model.RaceDivisionCapacity;
+import com.example.demo.repository.RaceDivisionCapacityRepository;
 import com.example.demo.repository.RaceRepository;
+import com.example.demo.service.RaceCapacityService;
+import com.example.demo.service.RosterReadModel;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
-import java.util.Optional;
+import java.util.*;
 
 @RestController
 @RequestMapping("/api/admin/races")
 public class AdminRacesController {
 
     private final RaceRepository raceRepository;
+    private final RaceDivisionCapacityRepository divisionCapacityRepository;
+    private final RaceCapacityService raceCapacityService;
+    private final RosterReadModel rosterReadModel;
 
-    public AdminRacesController(RaceRepository raceRepository) {
+    public AdminRacesController(RaceRepository raceRepository,
+                                RaceDivisionCapacityRepository divisionCapacityRepository,
+                                RaceCapacityService raceCapacityService,
+                                RosterReadModel rosterReadModel) {
         this.raceRepository = raceRepository;
+        this.divisionCapacityRepository = divisionCapacityRepository;
+        this.raceCapacityService = raceCapacityService;
+        this.rosterReadModel = rosterReadModel;
     }
 
+    // Seat limits for one race: capacity = overall cap (null = unlimited),
+    // divisions = optional per-division caps (division name -> seats)
+    public record CapacityRequest(Integer capacity, Map<String, Integer> divisions) {}
+
     @GetMapping
     public List<Race> getAll() {
         return raceRepository.findAll();
@@ -39,13 +56,84 @@ public class AdminRacesController {
         existing.setLocation(incoming.getLocation());
         existing.setDescription(incoming.getDescription());
 
-        return ResponseEntity.ok(raceRepository.save(existing));
+        Race saved = raceRepository.save(existing);
+        rosterReadModel.raceSaved(saved);
+        return ResponseEntity.ok(saved);
     }
 
     @DeleteMapping("/{id}")
+    @Transactional
     public ResponseEntity<?> delete(@PathVariable Long id) {
         if (!raceRepository.existsById(id)) return ResponseEntity.notFound().build();
+        divisionCapacityRepository.deleteByRaceId(id);
         raceRepository.deleteById(id);
+        raceCapacityService.raceRemoved(id);
+        rosterReadModel.raceRemoved(id);
         return ResponseEntity.ok().build();
     }
+
+    // =========================================================
+    // Capacity
+    // =========================================================
+
+    @GetMapping("/{id}/capacity")
+    public ResponseEntity<?> getCapacity(@PathVariable Long id) {
+        Optional<Race> race = raceRepository.findById(id);
+        if (race.isEmpty()) return ResponseEntity.notFound().build();
+        return ResponseEntity.ok(toCapacity(race.get(), divisionCapacityRepository.findByRaceId(id)));
+    }
+
+    /**
+     * ✅ Replace a race's seat limits. Raising (or removing) a limit promotes waitlisted
+     * racers in sign-up order; lowering it never bumps anyone already registered.
+     */
+    @PutMapping("/{id}/capacity")
+    @Transactional
+    public ResponseEntity<?> setCapacity(@PathVariable Long id, @RequestBody CapacityRequest request) {
+        Optional<Race> raceOpt = raceRepository.findById(id);
+        if (raceOpt.isEmpty()) return ResponseEntity.notFound().build();
+        if (request == null) return ResponseEntity.badRequest().body(Map.of("message", "Capacity is required."));
+
+        if (request.capacity() != null && request.capacity() < 0) {
+            return ResponseEntity.badRequest().body(Map.of("message", "Capacity cannot be negative."));
+        }
+
+        Map<String, Integer> divisions = new LinkedHashMap<>();
+        if (request.divisions() != null) {
+            Set<String> seen = new HashSet<>();
+            for (Map.Entry<String, Integer> e : request.divisions().entrySet()) {
+                String division = e.getKey() == null ? "" : e.getKey().trim();
+                Integer seats = e.getValue();
+                if (division.isEmpty()) continue;
+                if (seats == null || seats < 0) {
+                    return ResponseEntity.badRequest().body(Map.of("message", "Invalid capacity for " + division + "."));
+                }
+                if (!seen.add(RaceCapacityService.normalize(division))) {
+                    return ResponseEntity.badRequest().body(Map.of("message", "Duplicate division: " + division + "."));
+                }
+                divisions.put(division, seats);
+            }
+        }
+
+        Race race = raceOpt.get();
+        race.setCapacity(request.capacity());
+        raceRepository.save(race);
+
+        divisionCapacityRepository.deleteByRaceId(id);
+        divisionCapacityRepository.flush();
+        List<RaceDivisionCapacity> saved = divisionCapacityRepository.saveAll(divisions.entrySet().stream()
+                .map(e -> new RaceDivisionCapacity(id, e.getKey(), e.getValue()))
+                .toList());
+
+        raceCapacityService.capacityChanged(id);
+        return ResponseEntity.ok(toCapacity(race, saved));
+    }
+
+    private static CapacityRequest toCapacity(Race race, List<RaceDivisionCapacity> rows) {
+        Map<String, Integer> divisions = new LinkedHashMap<>();
+        rows.stream()
+                .sorted(Comparator.comparing(RaceDivisionCapacity::getDivision, String.CASE_INSENSITIVE_ORDER))
+                .forEach(r -> divisions.put(r.getDivision(), r.getCapacity()));
+        return new CapacityRequest(race.getCapacity(), divisions);
+    }
 }
\ No newline at end of file
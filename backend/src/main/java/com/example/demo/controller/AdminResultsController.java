@@ -1,16 +1,18 @@
 package com.example.demo.controller;
 
+import com.example.demo.dto.AdminResultRow;
 import com.example.demo.model.Race;
 import com.example.demo.model.RaceResult;
 import com.example.demo.model.Racer;
 import com.example.demo.repository.RaceRepository;
 import com.example.demo.repository.RaceResultRepository;
 import com.example.demo.repository.RacerRepository;
+import com.example.demo.service.ResultSheetService;
+import com.example.demo.service.StandingsService;
 import org.springframework.http.ResponseEntity;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
 
@@ -21,32 +23,23 @@ public class AdminResultsController {
     private final RaceResultRepository raceResultRepository;
     private final RaceRepository raceRepository;
     private final RacerRepository racerRepository;
+    private final StandingsService standingsService;
+    private final ResultSheetService resultSheetService;
 
     public AdminResultsController(
             RaceResultRepository raceResultRepository,
             RaceRepository raceRepository,
-            RacerRepository racerRepository
+            RacerRepository racerRepository,
+            StandingsService standingsService,
+            ResultSheetService resultSheetService
     ) {
         this.raceResultRepository = raceResultRepository;
         this.raceRepository = raceRepository;
         this.racerRepository = racerRepository;
+        this.standingsService = standingsService;
+        this.resultSheetService = resultSheetService;
     }
 
-    /**
-     * Flat DTO for admin UI
-     */
-    public record AdminResultRow(
-            Long id,
-            Long raceId,
-            String raceName,
-            String raceDate,   // ISO yyyy-MM-dd
-            Long racerId,
-            String racerName,
-            String division,
-            Integer placement,
-            String carNumber
-    ) {}
-
     private AdminResultRow toRow(RaceResult rr) {
         Race race = rr.getRace();
         Racer racer = rr.getRacer();
@@ -75,19 +68,8 @@ public class AdminResultsController {
     @GetMapping
     @Transactional(readOnly = true)
     public List<AdminResultRow> getAll() {
-        return raceResultRepository.findAll()
-                .stream()
-                .sorted(Comparator
-                        .comparing((RaceResult rr) ->
-                                        rr.getRace() != null ? rr.getRace().getRaceDate() : null,
-                                Comparator.nullsLast(Comparator.reverseOrder()))
-                        .thenComparing(rr -> rr.getDivision() == null ? "" : rr.getDivision(),
-                                String::compareToIgnoreCase)
-                        // ✅ FIX: placement is primitive int, so no null check
-                        .thenComparingInt(RaceResult::getPlacement)
-                )
-                .map(this::toRow)
-                .toList();
+        // ✅ One flat query, sorted in the DB (race date desc, division, placement)
+        return raceResultRepository.findAdminRows();
     }
 
     /**
@@ -125,16 +107,43 @@ public class AdminResultsController {
         rr.setPlacement(req.placement());
 
         RaceResult saved = raceResultRepository.save(rr);
+        standingsService.resultSaved(saved);
         return ResponseEntity.ok(toRow(saved));
     }
 
+    /**
+     * ✅ Replace the whole placement sheet for one race + division ("Save All")
+     * payload expects: raceId, division, placements: [{ racerId, placement }]
+     */
+    public record ResultSheetRequest(
+            Long raceId,
+            String division,
+            List<ResultSheetService.SheetEntry> placements
+    ) {}
+
+    @PutMapping("/sheet")
+    public ResponseEntity<?> replaceSheet(@RequestBody ResultSheetRequest req) {
+        if (req == null || req.raceId() == null || req.division() == null || req.division().isBlank()) {
+            return ResponseEntity.badRequest().body("raceId and division are required.");
+        }
+
+        try {
+            List<RaceResult> saved = resultSheetService.replaceSheet(req.raceId(), req.division(), req.placements());
+            return ResponseEntity.ok(saved.stream().map(this::toRow).toList());
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest().body(ex.getMessage());
+        }
+    }
+
     /**
      * ✅ Delete a result row
      */
     @DeleteMapping("/{id}")
     public ResponseEntity<?> delete(@PathVariable Long id) {
-        if (!raceResultRepository.existsById(id)) return ResponseEntity.notFound().build();
-        raceResultRepository.deleteById(id);
+        Optional<RaceResult> existing = raceResultRepository.findById(id);
+        if (existing.isEmpty()) return ResponseEntity.notFound().build();
+        raceResultRepository.delete(existing.get());
+        standingsService.resultDeleted(existing.get());
         return ResponseEntity.ok().build();
     }
 }
\ No newline at end of file
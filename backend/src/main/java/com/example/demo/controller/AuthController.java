@@ -2,11 +2,14 @@ package com.example.demo.controller;
 
 import com.example.demo.model.Parent;
 import com.example.demo.repository.ParentRepository;
+import com.example.demo.security.AuthenticatedParent;
 import com.example.demo.security.JwtUtil;
+import com.example.demo.security.ParentPrincipalCache;
 import com.example.demo.service.PasswordResetService;
 
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.*;
 
@@ -23,6 +26,7 @@ public class AuthController {
     private final PasswordEncoder passwordEncoder;
     private final JwtUtil jwtUtil;
     private final PasswordResetService passwordResetService;
+    private final ParentPrincipalCache parentPrincipalCache;
 
     // ----------------------------------
     // Login attempt limiting (tweak as needed)
@@ -35,12 +39,14 @@ public class AuthController {
             ParentRepository parentRepository,
             PasswordEncoder passwordEncoder,
             JwtUtil jwtUtil,
-            PasswordResetService passwordResetService
+            PasswordResetService passwordResetService,
+            ParentPrincipalCache parentPrincipalCache
     ) {
         this.parentRepository = parentRepository;
         this.passwordEncoder = passwordEncoder;
         this.jwtUtil = jwtUtil;
         this.passwordResetService = passwordResetService;
+        this.parentPrincipalCache = parentPrincipalCache;
     }
 
     // ----------------------------------
@@ -157,7 +163,8 @@ public class AuthController {
             parentRepository.save(parent);
 
             String roleName = (parent.getRole() == null) ? "USER" : parent.getRole().name();
-            String token = jwtUtil.generateToken(parent.getEmail(), roleName);
+            String token = jwtUtil.generateToken(parent.getEmail(), roleName, parent.getId());
+            parentPrincipalCache.evict(parent.getEmail()); // fresh snapshot for the new session
 
             return ResponseEntity.ok(Map.of(
                     "message", "Login successful",
@@ -180,32 +187,26 @@ public class AuthController {
     // CURRENT USER
     // ----------------------------------
     @GetMapping("/me")
-    public ResponseEntity<?> me(@RequestHeader(value = "Authorization", required = false) String authHeader) {
+    public ResponseEntity<?> me(@AuthenticationPrincipal AuthenticatedParent me,
+                                @RequestHeader(value = "Authorization", required = false) String authHeader) {
 
         if (authHeader == null || !authHeader.startsWith("Bearer ")) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                     .body(Map.of("message", "Missing token"));
         }
 
-        try {
-            String token = authHeader.substring(7);
-            String email = jwtUtil.extractUsername(token);
-
-            Optional<Parent> parentOpt = parentRepository.findByEmailIgnoreCase(email);
-            if (parentOpt.isEmpty()) {
-                return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
-                        .body(Map.of("message", "Invalid token"));
-            }
-
-            Parent parent = parentOpt.get();
-
-            String roleName = (parent.getRole() == null) ? "USER" : parent.getRole().name();
+        // ✅ Resolved by JwtAuthenticationFilter; null means bad/expired token or unknown parent
+        if (me == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(Map.of("message", "Invalid or expired token"));
+        }
 
+        try {
             return ResponseEntity.ok(Map.of(
-                    "email", parent.getEmail(),
-                    "firstName", parent.getFirstName(),
-                    "lastName", parent.getLastName(),
-                    "role", roleName
+                    "email", me.email(),
+                    "firstName", me.firstName(),
+                    "lastName", me.lastName(),
+                    "role", me.role()
             ));
 
         } catch (Exception e) {
@@ -6,10 +6,13 @@ import com.example.demo.model.Racer;
 import com.example.demo.repository.ParentRacerLinkRepository;
 import com.example.demo.repository.ParentRepository;
 import com.example.demo.repository.RacerRepository;
-import com.example.demo.security.JwtUtil;
+import com.example.demo.security.AuthenticatedParent;
+import com.example.demo.service.RacerAccessIndex;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.Arrays;
 import java.util.List;
 import java.util.Locale;
 import java.util.Optional;
@@ -21,33 +24,25 @@ public class ParentController {
     private final ParentRepository parentRepository;
     private final RacerRepository racerRepository;
     private final ParentRacerLinkRepository parentRacerLinkRepository;
-    private final JwtUtil jwtUtil;
+    private final RacerAccessIndex racerAccessIndex;
 
     public ParentController(ParentRepository parentRepository,
                             RacerRepository racerRepository,
                             ParentRacerLinkRepository parentRacerLinkRepository,
-                            JwtUtil jwtUtil) {
+                            RacerAccessIndex racerAccessIndex) {
         this.parentRepository = parentRepository;
         this.racerRepository = racerRepository;
         this.parentRacerLinkRepository = parentRacerLinkRepository;
-        this.jwtUtil = jwtUtil;
+        this.racerAccessIndex = racerAccessIndex;
     }
 
     // Simple request/response DTOs
     public record CoParentInviteRequest(String email) {}
     public record InviteResponse(String message) {}
 
-    private Parent getCurrentParent(String authHeader) {
-        String token = authHeader.substring(7); // remove "Bearer "
-        String email = jwtUtil.extractUsername(token);
-        return parentRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("Parent not found for email " + email));
-    }
-
     @PostMapping("/invite")
-    public ResponseEntity<?> inviteCoParent(@RequestHeader("Authorization") String authHeader,
+    public ResponseEntity<?> inviteCoParent(@AuthenticationPrincipal AuthenticatedParent inviter,
                                             @RequestBody CoParentInviteRequest request) {
-        Parent inviter = getCurrentParent(authHeader);
 
         if (request.email() == null || request.email().isBlank()) {
             return ResponseEntity.badRequest().body(new InviteResponse("Email is required."));
@@ -56,7 +51,7 @@ public class ParentController {
         String email = request.email().trim().toLowerCase(Locale.ROOT);
 
         // Prevent inviting yourself
-        if (email.equalsIgnoreCase(inviter.getEmail())) {
+        if (email.equalsIgnoreCase(inviter.email())) {
             return ResponseEntity.badRequest()
                     .body(new InviteResponse("You cannot invite yourself as a co-parent."));
         }
@@ -71,7 +66,10 @@ public class ParentController {
         Parent coParent = coParentOpt.get();
 
         // Get all racers visible to the inviter (primary + any existing co-parent links)
-        List<Racer> visibleRacers = racerRepository.findAllVisibleToParent(inviter);
+        long[] visibleIds = racerAccessIndex.visibleRacerIds(inviter.id());
+        List<Racer> visibleRacers = visibleIds.length == 0
+                ? List.of()
+                : racerRepository.findAllByIdWithParent(Arrays.stream(visibleIds).boxed().toList());
 
         if (visibleRacers.isEmpty()) {
             return ResponseEntity.ok(new InviteResponse(
@@ -89,7 +87,7 @@ public class ParentController {
             }
 
             // Skip if link already exists
-            boolean exists = parentRacerLinkRepository.existsByParentAndRacer(coParent, racer);
+            boolean exists = racerAccessIndex.canManage(coParent.getId(), racer.getId());
             if (exists) {
                 continue;
             }
@@ -99,6 +97,10 @@ public class ParentController {
             linksCreated++;
         }
 
+        if (linksCreated > 0) {
+            racerAccessIndex.parentChanged(coParent.getId());
+        }
+
         String msg;
         if (linksCreated == 0) {
             msg = "This co-parent already has access to all your racers.";
@@ -3,7 +3,12 @@ package com.example.demo.controller;
 
 import com.example.demo.model.Photo;
 import com.example.demo.repository.PhotoRepository;
-import com.example.demo.service.SupabaseStorageService;
+import com.example.demo.service.ImageDedupService;
+import com.example.demo.service.PhotoPageService;
+import com.example.demo.service.PhotoVariantService;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
@@ -11,23 +16,57 @@ import org.springframework.web.multipart.MultipartFile;
 import java.io.IOException;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/photos")
 public class PhotoController {
 
     private final PhotoRepository photoRepository;
-    private final SupabaseStorageService storageService;
+    private final PhotoVariantService photoVariantService;
+    private final PhotoPageService photoPageService;
+    private final ImageDedupService imageDedupService;
 
     public PhotoController(PhotoRepository photoRepository,
-                           SupabaseStorageService storageService) {
+                           PhotoVariantService photoVariantService,
+                           PhotoPageService photoPageService,
+                           ImageDedupService imageDedupService) {
         this.photoRepository = photoRepository;
-        this.storageService = storageService;
+        this.photoVariantService = photoVariantService;
+        this.photoPageService = photoPageService;
+        this.imageDedupService = imageDedupService;
     }
 
     @GetMapping
     public List<Photo> getAll() {
-        return photoRepository.findAll();
+        return photoRepository.findAllByOrderByUploadedAtDesc();
+    }
+
+    // ✅ Keyset-paged feed: GET /api/photos?size=24[&cursor=...]
+    // The default first page is served pre-serialized with an ETag (304 when unchanged)
+    @GetMapping(params = "size")
+    public ResponseEntity<?> getPage(
+            @RequestParam int size,
+            @RequestParam(required = false) String cursor,
+            @RequestHeader(value = "If-None-Match", required = false) String ifNoneMatch
+    ) {
+        if ((cursor == null || cursor.isBlank()) && size == PhotoPageService.DEFAULT_PAGE_SIZE) {
+            PhotoPageService.CachedPage first = photoPageService.firstPage();
+            if (ifNoneMatch != null && ifNoneMatch.contains(first.etag())) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(first.etag()).build();
+            }
+            return ResponseEntity.ok()
+                    .eTag(first.etag())
+                    .cacheControl(CacheControl.noCache())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(first.json());
+        }
+
+        try {
+            return ResponseEntity.ok(photoPageService.page(size, cursor));
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest().body(Map.of("message", ex.getMessage()));
+        }
     }
 
     // Already had create/update/delete here…
@@ -40,7 +79,9 @@ public class PhotoController {
             @RequestParam(value = "caption", required = false) String caption
     ) throws IOException {
 
-        String publicUrl = storageService.uploadImage(file);
+        // ✅ Stored by content hash: a repeat of an already-uploaded file is not sent again
+        ImageDedupService.StoredUpload stored = imageDedupService.store(file);
+        String publicUrl = stored.url();
 
         Photo photo = new Photo();
         photo.setTitle(title);
@@ -50,6 +91,13 @@ public class PhotoController {
         // photo.setUploadedAt(LocalDateTime.now());
 
         Photo saved = photoRepository.save(photo);
+        photoPageService.invalidate();
+
+        // ✅ thumb/medium/full JPEGs are generated in the background and filled in on the row
+        // (or copied from the earlier photo when this image was uploaded before)
+        if (!stored.duplicate() || !photoVariantService.reuse(saved.getId(), publicUrl)) {
+            photoVariantService.submit(saved.getId(), file);
+        }
         return ResponseEntity.ok(saved);
     }
 }
\ No newline at end of file
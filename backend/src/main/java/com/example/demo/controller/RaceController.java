@@ -2,6 +2,7 @@ package com.example.demo.controller;
 
 import com.example.demo.model.Race;
 import com.example.demo.repository.RaceRepository;
+import com.example.demo.service.RosterReadModel;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -12,9 +13,11 @@ import java.util.List;
 public class RaceController {
 
     private final RaceRepository raceRepository;
+    private final RosterReadModel rosterReadModel;
 
-    public RaceController(RaceRepository raceRepository) {
+    public RaceController(RaceRepository raceRepository, RosterReadModel rosterReadModel) {
         this.raceRepository = raceRepository;
+        this.rosterReadModel = rosterReadModel;
     }
 
     @GetMapping
@@ -48,7 +51,9 @@ public class RaceController {
                         existing.setRequiresRegistration(payload.getRequiresRegistration());
                     }
 
-                    return ResponseEntity.ok(raceRepository.save(existing));
+                    Race saved = raceRepository.save(existing);
+                    rosterReadModel.raceSaved(saved);
+                    return ResponseEntity.ok(saved);
                 })
                 .orElseGet(() -> ResponseEntity.notFound().build());
     }
@@ -60,6 +65,7 @@ public class RaceController {
             return ResponseEntity.notFound().build();
         }
         raceRepository.deleteById(id);
+        rosterReadModel.raceRemoved(id);
         return ResponseEntity.ok().build();
     }
 }
\ No newline at end of file
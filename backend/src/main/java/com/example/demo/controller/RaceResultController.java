@@ -6,6 +6,7 @@ import com.example.demo.model.RaceResult;
 import com.example.demo.repository.RaceRepository;
 import com.example.demo.repository.RacerRepository;
 import com.example.demo.repository.RaceResultRepository;
+import com.example.demo.service.StandingsService;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -19,20 +20,24 @@ public class RaceResultController {
     private final RaceResultRepository raceResultRepository;
     private final RaceRepository raceRepository;
     private final RacerRepository racerRepository;
+    private final StandingsService standingsService;
 
     public RaceResultController(
             RaceResultRepository raceResultRepository,
             RaceRepository raceRepository,
-            RacerRepository racerRepository
+            RacerRepository racerRepository,
+            StandingsService standingsService
     ) {
         this.raceResultRepository = raceResultRepository;
         this.raceRepository = raceRepository;
         this.racerRepository = racerRepository;
+        this.standingsService = standingsService;
     }
 
     @GetMapping
     public List<RaceResultResponse> getAllResults() {
-        return raceResultRepository.findAll()
+        // ✅ race/racer fetched with the results (no per-row loads)
+        return raceResultRepository.findAllWithRaceAndRacer()
                 .stream()
                 .map(RaceResultResponse::fromEntity)
                 .toList();
@@ -73,14 +78,17 @@ public class RaceResultController {
         rr.setPlacement(req.placement);
 
         RaceResult saved = raceResultRepository.save(rr);
+        standingsService.resultSaved(saved);
         return ResponseEntity.ok(RaceResultResponse.fromEntity(saved));
     }
 
     // ✅ Optional: allow deletes from same controller too
     @DeleteMapping("/{id}")
     public ResponseEntity<?> deleteResult(@PathVariable Long id) {
-        if (!raceResultRepository.existsById(id)) return ResponseEntity.notFound().build();
-        raceResultRepository.deleteById(id);
+        Optional<RaceResult> existing = raceResultRepository.findById(id);
+        if (existing.isEmpty()) return ResponseEntity.notFound().build();
+        raceResultRepository.delete(existing.get());
+        standingsService.resultDeleted(existing.get());
         return ResponseEntity.ok().build();
     }
 
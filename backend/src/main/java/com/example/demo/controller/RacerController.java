@@ -7,8 +7,14 @@ import com.example.demo.repository.ParentRepository;
 import com.example.demo.repository.RaceResultRepository;
 import com.example.demo.repository.RacerRepository;
 import com.example.demo.repository.RegistrationRepository;
-import com.example.demo.security.JwtUtil;
+import com.example.demo.security.AuthenticatedParent;
+import com.example.demo.service.RacerAccessIndex;
+import com.example.demo.service.RaceCapacityService;
+import com.example.demo.service.RacerSearchIndex;
+import com.example.demo.service.RosterReadModel;
+import com.example.demo.service.StandingsService;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
 
@@ -23,7 +29,11 @@ public class RacerController {
     private final ParentRacerLinkRepository parentRacerLinkRepository;
     private final RegistrationRepository registrationRepository;
     private final RaceResultRepository raceResultRepository;
-    private final JwtUtil jwtUtil;
+    private final StandingsService standingsService;
+    private final RacerAccessIndex racerAccessIndex;
+    private final RacerSearchIndex racerSearchIndex;
+    private final RaceCapacityService raceCapacityService;
+    private final RosterReadModel rosterReadModel;
 
     public RacerController(
             RacerRepository racerRepository,
@@ -31,14 +41,22 @@ public class RacerController {
             ParentRacerLinkRepository parentRacerLinkRepository,
             RegistrationRepository registrationRepository,
             RaceResultRepository raceResultRepository,
-            JwtUtil jwtUtil
+            StandingsService standingsService,
+            RacerAccessIndex racerAccessIndex,
+            RacerSearchIndex racerSearchIndex,
+            RaceCapacityService raceCapacityService,
+            RosterReadModel rosterReadModel
     ) {
         this.racerRepository = racerRepository;
         this.parentRepository = parentRepository;
         this.parentRacerLinkRepository = parentRacerLinkRepository;
         this.registrationRepository = registrationRepository;
         this.raceResultRepository = raceResultRepository;
-        this.jwtUtil = jwtUtil;
+        this.standingsService = standingsService;
+        this.racerAccessIndex = racerAccessIndex;
+        this.racerSearchIndex = racerSearchIndex;
+        this.raceCapacityService = raceCapacityService;
+        this.rosterReadModel = rosterReadModel;
     }
 
     /* ==============================
@@ -56,27 +74,15 @@ public class RacerController {
         return c.matches("^[A-Za-z0-9#-]{1,10}$");
     }
 
-    private Parent getCurrentParent(String authHeader) {
-        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
-            throw new RuntimeException("Missing or invalid Authorization header");
-        }
-
-        String token = authHeader.substring(7);
-        String email = jwtUtil.extractUsername(token);
-
-        return parentRepository.findByEmailIgnoreCase(email)
-                .orElseThrow(() -> new RuntimeException("Parent not found"));
-    }
-
-    private boolean canManageRacer(Parent parent, Racer racer) {
+    private boolean canManageRacer(AuthenticatedParent me, Racer racer) {
         // Primary owner
         if (racer.getParent() != null &&
-                racer.getParent().getId().equals(parent.getId())) {
+                racer.getParent().getId().equals(me.id())) {
             return true;
         }
 
-        // Co-guardian link
-        return parentRacerLinkRepository.existsByParentAndRacer(parent, racer);
+        // Co-guardian link (in-memory index, no DB round trip)
+        return racerAccessIndex.canManage(me.id(), racer.getId());
     }
 
     private static final String DIV_3 = "3 Year Old Division";
@@ -142,16 +148,18 @@ public class RacerController {
 
     @GetMapping
     public ResponseEntity<?> getAllRacers(
-            @RequestHeader("Authorization") String authHeader
+            @AuthenticationPrincipal AuthenticatedParent me
     ) {
-        try {
-            Parent parent = getCurrentParent(authHeader);
-            List<Racer> racers = racerRepository.findAllVisibleToParent(parent.getId());
-            return ResponseEntity.ok(racers);
-        } catch (Exception e) {
+        if (me == null) {
             return ResponseEntity.status(401)
                     .body(Map.of("message", "Unauthorized"));
         }
+
+        long[] ids = racerAccessIndex.visibleRacerIds(me.id());
+        if (ids.length == 0) return ResponseEntity.ok(List.of());
+
+        List<Racer> racers = racerRepository.findAllByIdWithParent(Arrays.stream(ids).boxed().toList());
+        return ResponseEntity.ok(racers);
     }
 
     /* ==============================
@@ -160,11 +168,13 @@ public class RacerController {
 
     @PostMapping
     public ResponseEntity<?> addRacer(
-            @RequestHeader("Authorization") String authHeader,
+            @AuthenticationPrincipal AuthenticatedParent me,
             @RequestBody Racer racer
     ) {
         try {
-            Parent parent = getCurrentParent(authHeader);
+            // PK lookup (no email scan); entity needed as the racer's owner
+            Parent parent = parentRepository.findById(me.id())
+                    .orElseThrow(() -> new RuntimeException("Parent not found"));
 
             String firstName = normalize(racer.getFirstName());
             String lastName  = normalize(racer.getLastName());
@@ -217,6 +227,8 @@ public class RacerController {
             }
 
             Racer saved = racerRepository.save(racer);
+            racerAccessIndex.parentChanged(parent.getId());
+            racerSearchIndex.racerSaved(saved);
             return ResponseEntity.ok(saved);
 
         } catch (Exception e) {
@@ -232,13 +244,10 @@ public class RacerController {
     @PutMapping("/{id}")
     public ResponseEntity<?> updateRacer(
             @PathVariable Long id,
-            @RequestHeader("Authorization") String authHeader,
+            @AuthenticationPrincipal AuthenticatedParent me,
             @RequestBody Racer updated
     ) {
-        Parent parent;
-        try {
-            parent = getCurrentParent(authHeader);
-        } catch (Exception e) {
+        if (me == null) {
             return ResponseEntity.status(401)
                     .body(Map.of("message", "Unauthorized"));
         }
@@ -248,7 +257,7 @@ public class RacerController {
 
         Racer existing = opt.get();
 
-        if (!canManageRacer(parent, existing)) {
+        if (!canManageRacer(me, existing)) {
             return ResponseEntity.status(403)
                     .body(Map.of("message", "Unauthorized to edit this racer."));
         }
@@ -273,7 +282,7 @@ public class RacerController {
 
         Long ownerId = existing.getParent() != null
                 ? existing.getParent().getId()
-                : parent.getId();
+                : me.id();
 
         boolean dup = racerRepository
                 .existsByParentIdAndFirstNameIgnoreCaseAndLastNameIgnoreCaseAndAgeAndNicknameIgnoreCaseAndIdNot(
@@ -300,6 +309,7 @@ public class RacerController {
         existing.setCarNumber(carNumber);
 
         // ✅ IMPORTANT: enforce division rules on update too
+        String previousDivision = existing.getDivision();
         try {
             existing.setDivision(validateAndResolveDivision(age, updated.getDivision()));
         } catch (IllegalArgumentException ex) {
@@ -307,6 +317,14 @@ public class RacerController {
         }
 
         Racer saved = racerRepository.save(existing);
+        // ✅ Seats are counted per division: recount this racer's races under the new one
+        if (!Objects.equals(RaceCapacityService.normalize(previousDivision),
+                RaceCapacityService.normalize(saved.getDivision()))) {
+            raceCapacityService.racerDivisionChanged(saved.getId());
+        }
+        standingsService.racerRenamed(saved);
+        racerSearchIndex.racerSaved(saved);
+        rosterReadModel.racerSaved(saved);
         return ResponseEntity.ok(saved);
     }
 
@@ -318,12 +336,9 @@ public class RacerController {
     @Transactional
     public ResponseEntity<?> deleteRacer(
             @PathVariable Long id,
-            @RequestHeader("Authorization") String authHeader
+            @AuthenticationPrincipal AuthenticatedParent me
     ) {
-        Parent parent;
-        try {
-            parent = getCurrentParent(authHeader);
-        } catch (Exception e) {
+        if (me == null) {
             return ResponseEntity.status(401)
                     .body(Map.of("message", "Unauthorized"));
         }
@@ -333,16 +348,22 @@ public class RacerController {
 
         Racer racer = opt.get();
 
-        if (!canManageRacer(parent, racer)) {
+        if (!canManageRacer(me, racer)) {
             return ResponseEntity.status(403)
                     .body(Map.of("message", "Unauthorized to delete this racer."));
         }
 
         try {
+            List<Long> registeredRaceIds = registrationRepository.findRaceIdsByRacerId(id);
             registrationRepository.deleteByRacerId(id);
             raceResultRepository.deleteByRacerId(id);
             parentRacerLinkRepository.deleteByRacerId(id);
             racerRepository.deleteById(id);
+            standingsService.racerRemoved(id);
+            racerAccessIndex.racerRemoved(id);
+            racerSearchIndex.racerRemoved(id);
+            rosterReadModel.racerRemoved(id);
+            raceCapacityService.registrationsRemoved(registeredRaceIds);
 
             return ResponseEntity.ok(Map.of("message", "Racer deleted successfully."));
         } catch (Exception e) {
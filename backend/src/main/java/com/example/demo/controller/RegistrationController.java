@@ -1,19 +1,21 @@
 package com.example.demo.controller;
 
-import com.example.demo.model.Parent;
 import com.example.demo.model.Racer;
-import com.example.demo.model.Race;
 import com.example.demo.model.Registration;
-import com.example.demo.repository.ParentRepository;
-import com.example.demo.repository.RacerRepository;
-import com.example.demo.repository.RaceRepository;
 import com.example.demo.repository.RegistrationRepository;
-import com.example.demo.repository.ParentRacerLinkRepository;
-import com.example.demo.security.JwtUtil;
+import com.example.demo.security.AuthenticatedParent;
+import com.example.demo.service.IdempotencyStore;
+import com.example.demo.service.RaceCapacityService;
+import com.example.demo.service.RacerAccessIndex;
+import com.example.demo.service.RosterReadModel;
+import com.example.demo.service.RegistrationService;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.Arrays;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 
 @RestController
@@ -21,36 +23,39 @@ import java.util.Optional;
 public class RegistrationController {
 
     private final RegistrationRepository registrationRepository;
-    private final RacerRepository racerRepository;
-    private final RaceRepository raceRepository;
-    private final ParentRepository parentRepository;
-    private final ParentRacerLinkRepository parentRacerLinkRepository;
-    private final JwtUtil jwtUtil;
+    private final RacerAccessIndex racerAccessIndex;
+    private final RegistrationService registrationService;
+    private final IdempotencyStore idempotencyStore;
+    private final RaceCapacityService raceCapacityService;
+    private final RosterReadModel rosterReadModel;
 
     public RegistrationController(RegistrationRepository registrationRepository,
-                                  RacerRepository racerRepository,
-                                  RaceRepository raceRepository,
-                                  ParentRepository parentRepository,
-                                  ParentRacerLinkRepository parentRacerLinkRepository,
-                                  JwtUtil jwtUtil) {
+                                  RacerAccessIndex racerAccessIndex,
+                                  RegistrationService registrationService,
+                                  IdempotencyStore idempotencyStore,
+                                  RaceCapacityService raceCapacityService,
+                                  RosterReadModel rosterReadModel) {
         this.registrationRepository = registrationRepository;
-        this.racerRepository = racerRepository;
-        this.raceRepository = raceRepository;
-        this.parentRepository = parentRepository;
-        this.parentRacerLinkRepository = parentRacerLinkRepository;
-        this.jwtUtil = jwtUtil;
+        this.racerAccessIndex = racerAccessIndex;
+        this.registrationService = registrationService;
+        this.idempotencyStore = idempotencyStore;
+        this.raceCapacityService = raceCapacityService;
+        this.rosterReadModel = rosterReadModel;
     }
 
     // =========================================================
     // DTOs
     // =========================================================
 
-    // Small DTO used for parent endpoints
-    public record RegistrationDto(Long id, Long racerId, Long raceId) {}
+    // Small DTO used for parent endpoints (status: REGISTERED or WAITLISTED)
+    public record RegistrationDto(Long id, Long racerId, Long raceId, String status) {}
 
     // Request body for POST /api/registrations
     public record CreateRegistrationRequest(Long racerId, Long raceId) {}
 
+    // Request body for POST /api/registrations/bulk (every racer x every race)
+    public record BulkRegistrationRequest(List<Long> racerIds, List<Long> raceIds) {}
+
     // Admin DTO (gives names + race date so admin UI can display without extra calls)
     public record AdminRegistrationDto(
             Long id,
@@ -65,11 +70,16 @@ public class RegistrationController {
     // Helpers
     // =========================================================
 
+    private static List<Long> sortedIds(List<Long> ids) {
+        return ids.stream().filter(Objects::nonNull).distinct().sorted().toList();
+    }
+
     private RegistrationDto toDto(Registration reg) {
         return new RegistrationDto(
                 reg.getId(),
                 reg.getRacer() != null ? reg.getRacer().getId() : null,
-                reg.getRace() != null ? reg.getRace().getId() : null
+                reg.getRace() != null ? reg.getRace().getId() : null,
+                reg.getStatus()
         );
     }
 
@@ -100,27 +110,17 @@ public class RegistrationController {
         );
     }
 
-    private Parent getCurrentParent(String authHeader) {
-        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
-            throw new RuntimeException("Missing or invalid Authorization header");
-        }
-        String token = authHeader.substring(7); // drop "Bearer "
-        String email = jwtUtil.extractUsername(token);
-        return parentRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("Parent not found for email " + email));
-    }
-
     /**
      * A parent can manage a racer if:
      *  - they are the primary parent on the Racer entity, OR
      *  - there is a ParentRacerLink row tying them to that racer.
      */
-    private boolean canManageRacer(Parent parent, Racer racer) {
+    private boolean canManageRacer(AuthenticatedParent me, Racer racer) {
         if (racer.getParent() != null &&
-                racer.getParent().getId().equals(parent.getId())) {
+                racer.getParent().getId().equals(me.id())) {
             return true;
         }
-        return parentRacerLinkRepository.existsByParentAndRacer(parent, racer);
+        return racerAccessIndex.canManage(me.id(), racer.getId());
     }
 
     // =========================================================
@@ -135,7 +135,8 @@ public class RegistrationController {
      */
     @GetMapping
     public ResponseEntity<?> getAllRegistrations() {
-        List<Registration> regs = registrationRepository.findAll();
+        // ✅ racer/race fetched with the registrations (no per-row loads)
+        List<Registration> regs = registrationRepository.findAllWithRacerAndRace();
         List<AdminRegistrationDto> dtos = regs.stream()
                 .map(this::toAdminDto)
                 .toList();
@@ -148,18 +149,14 @@ public class RegistrationController {
 
     // 🔹 Get all registrations for the current parent's visible racers
     @GetMapping("/mine")
-    public ResponseEntity<?> getMyRegistrations(@RequestHeader("Authorization") String authHeader) {
-        Parent parent = getCurrentParent(authHeader);
-
-        // All racers this parent can see (primary + co-parent links)
-        List<Racer> visibleRacers = racerRepository.findAllVisibleToParent(parent);
-        if (visibleRacers.isEmpty()) {
+    public ResponseEntity<?> getMyRegistrations(@AuthenticationPrincipal AuthenticatedParent me) {
+        // All racers this parent can see (primary + co-parent links), straight from the index
+        long[] visibleRacerIds = racerAccessIndex.visibleRacerIds(me.id());
+        if (visibleRacerIds.length == 0) {
             return ResponseEntity.ok(List.of());
         }
 
-        List<Long> racerIds = visibleRacers.stream()
-                .map(Racer::getId)
-                .toList();
+        List<Long> racerIds = Arrays.stream(visibleRacerIds).boxed().toList();
 
         List<Registration> regs = registrationRepository.findByRacerIdIn(racerIds);
 
@@ -171,48 +168,99 @@ public class RegistrationController {
     }
 
     // 🔹 Register a racer for a race
+    /**
+     * ✅ Register a racer for a race (idempotent).
+     * Existing racer/race pair -> 200 with the existing registration.
+     * Full race (or division) -> 200 with status WAITLISTED; promoted automatically when a seat frees up.
+     * Optional Idempotency-Key header: a retry with the same key + body replays the first response.
+     */
     @PostMapping
-    public ResponseEntity<?> createRegistration(@RequestHeader("Authorization") String authHeader,
+    public ResponseEntity<?> createRegistration(@AuthenticationPrincipal AuthenticatedParent me,
+                                                @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
                                                 @RequestBody CreateRegistrationRequest request) {
-        Parent parent = getCurrentParent(authHeader);
 
         if (request == null || request.racerId() == null || request.raceId() == null) {
             return ResponseEntity.badRequest().body("racerId and raceId are required.");
         }
 
-        Optional<Racer> racerOpt = racerRepository.findById(request.racerId());
-        if (racerOpt.isEmpty()) {
-            return ResponseEntity.badRequest().body("Racer not found.");
+        String fingerprint = "register:" + request.racerId() + ":" + request.raceId();
+        try {
+            IdempotencyStore.Lookup seen = idempotencyStore.find(me.id(), idempotencyKey, fingerprint);
+            if (seen instanceof IdempotencyStore.Replay replay) {
+                return ResponseEntity.ok(replay.response());
+            }
+            if (seen instanceof IdempotencyStore.Conflict) {
+                return ResponseEntity.status(409)
+                        .body("Idempotency-Key was already used for a different registration.");
+            }
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest().body(ex.getMessage());
         }
-        Racer racer = racerOpt.get();
 
-        // Ensure this racer belongs to the current household (primary or co-parent)
-        if (!canManageRacer(parent, racer)) {
-            return ResponseEntity.status(403)
-                    .body("You cannot register racers that are not linked to your account.");
+        RegistrationService.Outcome outcome =
+                registrationService.register(me.id(), request.racerId(), request.raceId());
+
+        switch (outcome.status()) {
+            case RACER_NOT_FOUND:
+                return ResponseEntity.badRequest().body("Racer not found.");
+            case FORBIDDEN:
+                // Ensure this racer belongs to the current household (primary or co-parent)
+                return ResponseEntity.status(403)
+                        .body("You cannot register racers that are not linked to your account.");
+            case RACE_NOT_FOUND:
+                return ResponseEntity.badRequest().body("Race not found.");
+            default:
+                String status = switch (outcome.status()) {
+                    case WAITLISTED -> Registration.WAITLISTED;
+                    case EXISTING -> registrationRepository.findById(outcome.registrationId())
+                            .map(Registration::getStatus)
+                            .orElse(Registration.REGISTERED);
+                    default -> Registration.REGISTERED;
+                };
+                RegistrationDto dto = new RegistrationDto(outcome.registrationId(), request.racerId(), request.raceId(), status);
+                idempotencyStore.remember(me.id(), idempotencyKey, fingerprint, dto);
+                return ResponseEntity.ok(dto);
         }
+    }
 
-        Optional<Race> raceOpt = raceRepository.findById(request.raceId());
-        if (raceOpt.isEmpty()) {
-            return ResponseEntity.badRequest().body("Race not found.");
+    /**
+     * ✅ Bulk register: every racer in racerIds for every race in raceIds, one call.
+     * Returns one outcome per cell: CREATED / WAITLISTED / EXISTING (with registrationId), FORBIDDEN, RACE_NOT_FOUND,
+     * RACE_PAST or REGISTRATION_NOT_REQUIRED (nothing inserted for those races).
+     * Optional Idempotency-Key header, same rules as single create.
+     */
+    @PostMapping("/bulk")
+    public ResponseEntity<?> createRegistrations(@AuthenticationPrincipal AuthenticatedParent me,
+                                                 @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+                                                 @RequestBody BulkRegistrationRequest request) {
+        if (request == null || request.racerIds() == null || request.raceIds() == null) {
+            return ResponseEntity.badRequest().body("racerIds and raceIds are required.");
         }
-        Race race = raceOpt.get();
 
-        // Avoid duplicate registrations
-        Optional<Registration> existing = registrationRepository.findByRacerAndRace(racer, race);
-        if (existing.isPresent()) {
-            return ResponseEntity.ok(toDto(existing.get()));
+        String fingerprint = "bulk:" + sortedIds(request.racerIds()) + ":" + sortedIds(request.raceIds());
+        try {
+            IdempotencyStore.Lookup seen = idempotencyStore.find(me.id(), idempotencyKey, fingerprint);
+            if (seen instanceof IdempotencyStore.Replay replay) {
+                return ResponseEntity.ok(replay.response());
+            }
+            if (seen instanceof IdempotencyStore.Conflict) {
+                return ResponseEntity.status(409)
+                        .body("Idempotency-Key was already used for a different registration.");
+            }
+
+            List<RegistrationService.CellOutcome> outcomes =
+                    registrationService.registerAll(me.id(), request.racerIds(), request.raceIds());
+            idempotencyStore.remember(me.id(), idempotencyKey, fingerprint, outcomes);
+            return ResponseEntity.ok(outcomes);
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest().body(ex.getMessage());
         }
-
-        Registration saved = registrationRepository.save(new Registration(racer, race));
-        return ResponseEntity.ok(toDto(saved));
     }
 
     // 🔹 Unregister a racer from a race
     @DeleteMapping("/{id}")
     public ResponseEntity<?> deleteRegistration(@PathVariable Long id,
-                                                @RequestHeader("Authorization") String authHeader) {
-        Parent parent = getCurrentParent(authHeader);
+                                                @AuthenticationPrincipal AuthenticatedParent me) {
 
         Optional<Registration> regOpt = registrationRepository.findById(id);
         if (regOpt.isEmpty()) {
@@ -223,12 +271,15 @@ public class RegistrationController {
         Racer racer = reg.getRacer();
 
         // Make sure this registration belongs to one of the current parent's visible racers
-        if (racer == null || !canManageRacer(parent, racer)) {
+        if (racer == null || !canManageRacer(me, racer)) {
             return ResponseEntity.status(403)
                     .body("You cannot delete registrations for racers not linked to your account.");
         }
 
         registrationRepository.delete(reg);
+        rosterReadModel.registrationRemoved(reg.getId());
+        // ✅ Frees a seat: oldest waitlisted racer for this race moves up
+        if (reg.getRace() != null) raceCapacityService.registrationsRemoved(List.of(reg.getRace().getId()));
         return ResponseEntity.ok("Registration deleted.");
     }
 }
\ No newline at end of file
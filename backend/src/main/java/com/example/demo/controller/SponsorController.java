@@ -3,10 +3,12 @@ package com.example.demo.controller;
 
 import com.example.demo.model.Sponsor;
 import com.example.demo.repository.SponsorRepository;
+import com.example.demo.service.SponsorLogoPlaceholderService;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 
 @RestController
@@ -14,9 +16,12 @@ import java.util.Optional;
 public class SponsorController {
 
     private final SponsorRepository sponsorRepository;
+    private final SponsorLogoPlaceholderService logoPlaceholderService;
 
-    public SponsorController(SponsorRepository sponsorRepository) {
+    public SponsorController(SponsorRepository sponsorRepository,
+                             SponsorLogoPlaceholderService logoPlaceholderService) {
         this.sponsorRepository = sponsorRepository;
+        this.logoPlaceholderService = logoPlaceholderService;
     }
 
     // 🔹 Full sponsors list (Sponsors page)
@@ -35,7 +40,10 @@ public class SponsorController {
 
     @PostMapping
     public Sponsor createSponsor(@RequestBody Sponsor sponsor) {
-        return sponsorRepository.save(sponsor);
+        sponsor.setLogoPlaceholder(null); // computed server-side only
+        Sponsor saved = sponsorRepository.save(sponsor);
+        logoPlaceholderService.logoChanged(saved);
+        return saved;
     }
 
     @PutMapping("/{id}")
@@ -47,12 +55,17 @@ public class SponsorController {
         }
 
         Sponsor sponsor = existingOpt.get();
+        boolean logoChanged = !Objects.equals(sponsor.getLogoUrl(), updated.getLogoUrl());
         sponsor.setName(updated.getName());
         sponsor.setLogoUrl(updated.getLogoUrl());
         sponsor.setWebsite(updated.getWebsite());
         sponsor.setDescription(updated.getDescription());
 
-        return ResponseEntity.ok(sponsorRepository.save(sponsor));
+        // ✅ New logo: drop the old placeholder now, recompute in the background
+        if (logoChanged) sponsor.setLogoPlaceholder(null);
+        Sponsor saved = sponsorRepository.save(sponsor);
+        if (logoChanged) logoPlaceholderService.logoChanged(saved);
+        return ResponseEntity.ok(saved);
     }
 
     @DeleteMapping("/{id}")
@@ -0,0 +1,31 @@
+package com.example.demo.controller;
+
+import com.example.demo.service.StandingsService;
+import com.example.demo.service.StandingsService.StandingRow;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/standings")
+public class StandingsController {
+
+    private final StandingsService standingsService;
+
+    public StandingsController(StandingsService standingsService) {
+        this.standingsService = standingsService;
+    }
+
+    // GET /api/standings -> { [division]: [{ racerId, name, points, races, wins, seconds, thirds }] }
+    @GetMapping
+    public Map<String, List<StandingRow>> getAll() {
+        return standingsService.getStandings();
+    }
+
+    // GET /api/standings/division?name=Lil%20Stingers
+    @GetMapping("/division")
+    public List<StandingRow> getDivision(@RequestParam("name") String name) {
+        return standingsService.getDivision(name);
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.demo.dto;
+
+import java.time.LocalDate;
+
+/**
+ * Flat registration row for the admin roster views.
+ * Built directly by JPQL constructor projections in RegistrationRepository.
+ */
+public record AdminRegistrationRow(
+        Long registrationId,
+        Long raceId,
+        String raceName,
+        LocalDate raceDate,
+        Long racerId,
+        String racerFirstName,
+        String racerLastName,
+        Integer racerAge,
+        String racerDivision,
+        String carNumber,
+        Long parentId,
+        String parentEmail,
+        String status
+) {}
@@ -0,0 +1,46 @@
+package com.example.demo.dto;
+
+import java.time.LocalDate;
+
+/**
+ * Flat DTO for admin UI
+ */
+public record AdminResultRow(
+        Long id,
+        Long raceId,
+        String raceName,
+        String raceDate,   // ISO yyyy-MM-dd
+        Long racerId,
+        String racerName,
+        String division,
+        Integer placement,
+        String carNumber
+) {
+
+    // Used by the JPQL constructor projection in RaceResultRepository
+    public AdminResultRow(Long id,
+                          Long raceId,
+                          String raceName,
+                          LocalDate raceDate,
+                          Long racerId,
+                          String racerFirstName,
+                          String racerLastName,
+                          String division,
+                          Integer placement,
+                          String carNumber) {
+        this(
+                id,
+                raceId,
+                raceName,
+                raceDate != null ? raceDate.toString() : null,
+                racerId,
+                racerId != null
+                        ? ((racerFirstName == null ? "" : racerFirstName) + " " +
+                        (racerLastName == null ? "" : racerLastName)).trim()
+                        : null,
+                division,
+                placement,
+                carNumber
+        );
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.demo.dto;
+
+/**
+ * How many listed racers share a stored division + age.
+ * Age is included so the dashboard can still bucket racers saved without a division.
+ */
+public record RacerDivisionCount(
+        String division,
+        Integer age,
+        Long count
+) {}
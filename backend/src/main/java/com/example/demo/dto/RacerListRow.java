@@ -0,0 +1,20 @@
+package com.example.demo.dto;
+
+/**
+ * Admin list row plus the stored sort_key it was ordered by.
+ * The key goes into the keyset cursor as-is, so paging never depends on re-deriving it.
+ */
+public record RacerListRow(
+        Long id,
+        String firstName,
+        String lastName,
+        String carNumber,
+        Integer age,
+        String division,
+        String parentEmail,
+        String sortKey
+) {
+    public RacerSearchDto toSearchDto() {
+        return new RacerSearchDto(id, firstName, lastName, carNumber, age, division, parentEmail);
+    }
+}
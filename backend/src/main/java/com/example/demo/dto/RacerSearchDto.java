@@ -0,0 +1,15 @@
+package com.example.demo.dto;
+
+/**
+ * Flat racer row for admin list/search.
+ * Built directly by JPQL constructor projections in RacerRepository.
+ */
+public record RacerSearchDto(
+        Long id,
+        String firstName,
+        String lastName,
+        String carNumber,
+        Integer age,
+        String division,
+        String parentEmail
+) {}
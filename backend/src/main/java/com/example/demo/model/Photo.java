@@ -4,6 +4,12 @@ import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
+@Table(indexes = {
+        // ✅ Gallery feed keyset order (newest first)
+        @Index(name = "idx_photo_uploaded_id", columnList = "uploaded_at, id"),
+        // ✅ Dedupe: find an earlier photo of the same stored image
+        @Index(name = "idx_photo_image_url", columnList = "image_url")
+})
 public class Photo {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -14,6 +20,23 @@ public class Photo {
     private String caption;
     private LocalDateTime uploadedAt = LocalDateTime.now();
 
+    // ✅ Tiny inline data: URI painted while the real image loads (see ImagePlaceholders)
+    @Column(length = 2048)
+    private String placeholder;
+
+    // ✅ Downscaled JPEG variants (filled in after upload by PhotoVariantService; null until ready)
+    private String thumbUrl;
+    private Integer thumbWidth;
+    private Integer thumbHeight;
+
+    private String mediumUrl;
+    private Integer mediumWidth;
+    private Integer mediumHeight;
+
+    private String fullUrl;
+    private Integer fullWidth;
+    private Integer fullHeight;
+
     public Photo() {}
 
     public Photo(String title, String imageUrl, String caption) {
@@ -31,4 +54,15 @@ public class Photo {
     public String getCaption() { return caption; }
     public void setCaption(String caption) { this.caption = caption; }
     public LocalDateTime getUploadedAt() { return uploadedAt; }
+
+    public String getPlaceholder() { return placeholder; }
+    public String getThumbUrl() { return thumbUrl; }
+    public Integer getThumbWidth() { return thumbWidth; }
+    public Integer getThumbHeight() { return thumbHeight; }
+    public String getMediumUrl() { return mediumUrl; }
+    public Integer getMediumWidth() { return mediumWidth; }
+    public Integer getMediumHeight() { return mediumHeight; }
+    public String getFullUrl() { return fullUrl; }
+    public Integer getFullWidth() { return fullWidth; }
+    public Integer getFullHeight() { return fullHeight; }
 }
\ No newline at end of file
@@ -21,6 +21,9 @@ public class Race {
     // default true so existing races behave normally
     private Boolean requiresRegistration = true;
 
+    // ✅ Max confirmed registrations (null = unlimited); extra sign-ups go on the waitlist
+    private Integer capacity;
+
     public Race() {}
 
     // Existing constructor (kept for compatibility)
@@ -60,4 +63,7 @@ public class Race {
     public void setRequiresRegistration(Boolean requiresRegistration) {
         this.requiresRegistration = (requiresRegistration == null) ? true : requiresRegistration;
     }
-}
\ No newline at end of file
+
+    public Integer getCapacity() { return capacity; }
+    public void setCapacity(Integer capacity) { this.capacity = capacity; }
+}
@@ -0,0 +1,41 @@
+package com.example.demo.model;
+
+import jakarta.persistence.*;
+
+/**
+ * Optional per-division seat limit for a race (on top of Race.capacity).
+ * Division is matched case-insensitively against Racer.division.
+ */
+@Entity
+@Table(
+        name = "race_division_capacity",
+        uniqueConstraints = @UniqueConstraint(name = "uk_race_division_capacity", columnNames = {"race_id", "division"})
+)
+public class RaceDivisionCapacity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "race_id", nullable = false)
+    private Long raceId;
+
+    @Column(nullable = false)
+    private String division;
+
+    @Column(nullable = false)
+    private int capacity;
+
+    public RaceDivisionCapacity() {}
+
+    public RaceDivisionCapacity(Long raceId, String division, int capacity) {
+        this.raceId = raceId;
+        this.division = division;
+        this.capacity = capacity;
+    }
+
+    public Long getId() { return id; }
+    public Long getRaceId() { return raceId; }
+    public String getDivision() { return division; }
+    public int getCapacity() { return capacity; }
+}
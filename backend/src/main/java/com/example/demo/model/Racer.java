@@ -1,10 +1,15 @@
 package com.example.demo.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 
+import java.util.Locale;
+
 @Entity
-@Table(name = "racer")
+@Table(name = "racer", indexes = {
+        @Index(name = "idx_racer_sort_key", columnList = "sort_key, id")
+})
 public class Racer {
 
     @Id
@@ -36,6 +41,15 @@ public class Racer {
     @JsonIgnoreProperties({ "password", "racers" })
     private Parent parent;
 
+    /**
+     * Admin list order (last, first, car number), lower-cased so SQL can ORDER BY /
+     * keyset-page on one indexed column. Derived; kept in sync on every save.
+     * Must compare by code point: on Postgres the column is pinned to COLLATE "C" (DataLoader).
+     */
+    @JsonIgnore
+    @Column(name = "sort_key", length = 400)
+    private String sortKey;
+
     // --- Normalization (prevents whitespace duplicates) ---
     @PrePersist
     @PreUpdate
@@ -48,6 +62,18 @@ public class Racer {
 
         if (division != null) division = division.trim();
         if (carNumber != null) carNumber = carNumber.trim();
+
+        sortKey = buildSortKey(lastName, firstName, carNumber);
+    }
+
+    // Sorts below every character a name can contain, so "smith" < "smithe" (a '|' did not)
+    public static final String SORT_KEY_SEPARATOR = "\u0001";
+
+    // Must match the SQL backfill in RacerRepository.backfillSortKeys()
+    public static String buildSortKey(String lastName, String firstName, String carNumber) {
+        return (lastName == null ? "" : lastName.toLowerCase(Locale.ROOT)) + SORT_KEY_SEPARATOR +
+                (firstName == null ? "" : firstName.toLowerCase(Locale.ROOT)) + SORT_KEY_SEPARATOR +
+                (carNumber == null ? "" : carNumber.toLowerCase(Locale.ROOT));
     }
 
     // Getters & Setters
@@ -74,4 +100,6 @@ public class Racer {
 
     public Parent getParent() { return parent; }
     public void setParent(Parent parent) { this.parent = parent; }
+
+    public String getSortKey() { return sortKey; }
 }
\ No newline at end of file
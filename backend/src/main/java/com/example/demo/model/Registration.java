@@ -4,7 +4,22 @@ import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
+@Table(
+        name = "registration",
+        uniqueConstraints = {
+                // ✅ One registration per racer per race (enforced by the DB, not check-then-insert)
+                @UniqueConstraint(name = "uk_registration_racer_race", columnNames = {"racer_id", "race_id"})
+        },
+        indexes = {
+                // ✅ Seat counts + waitlist order per race
+                @Index(name = "idx_registration_race_status", columnList = "race_id, status, id")
+        }
+)
 public class Registration {
+
+    public static final String REGISTERED = "REGISTERED";
+    public static final String WAITLISTED = "WAITLISTED";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -17,6 +32,10 @@ public class Registration {
 
     private LocalDateTime registeredAt = LocalDateTime.now();
 
+    // REGISTERED (has a seat) or WAITLISTED (race full; promoted in sign-up order)
+    @Column(length = 20)
+    private String status = REGISTERED;
+
     public Registration() {}
 
     public Registration(Racer racer, Race race) {
@@ -31,4 +50,6 @@ public class Registration {
     public Race getRace() { return race; }
     public void setRace(Race race) { this.race = race; }
     public LocalDateTime getRegisteredAt() { return registeredAt; }
+    public String getStatus() { return status == null ? REGISTERED : status; }
+    public void setStatus(String status) { this.status = status; }
 }
\ No newline at end of file
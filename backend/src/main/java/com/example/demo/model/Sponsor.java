@@ -13,6 +13,10 @@ public class Sponsor {
     private String website;
     private String description;
 
+    // ✅ Tiny inline data: URI of the logo, filled in asynchronously (see SponsorLogoPlaceholderService)
+    @Column(length = 2048)
+    private String logoPlaceholder;
+
     public Sponsor() {}
 
     public Sponsor(String name, String logoUrl, String website, String description) {
@@ -32,4 +36,6 @@ public class Sponsor {
     public void setWebsite(String website) { this.website = website; }
     public String getDescription() { return description; }
     public void setDescription(String description) { this.description = description; }
+    public String getLogoPlaceholder() { return logoPlaceholder; }
+    public void setLogoPlaceholder(String logoPlaceholder) { this.logoPlaceholder = logoPlaceholder; }
 }
\ No newline at end of file
@@ -0,0 +1,37 @@
+package com.example.demo.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * One uploaded image object in storage, keyed by the SHA-256 of its bytes.
+ * Lets a repeat upload of the same file resolve to the existing public URL.
+ */
+@Entity
+@Table(name = "stored_image")
+public class StoredImage {
+
+    // Lowercase hex SHA-256 of the uploaded bytes
+    @Id
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
+
+    @Column(nullable = false)
+    private String url;
+
+    private long size;
+    private LocalDateTime createdAt = LocalDateTime.now();
+
+    public StoredImage() {}
+
+    public StoredImage(String contentHash, String url, long size) {
+        this.contentHash = contentHash;
+        this.url = url;
+        this.size = size;
+    }
+
+    public String getContentHash() { return contentHash; }
+    public String getUrl() { return url; }
+    public long getSize() { return size; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+}
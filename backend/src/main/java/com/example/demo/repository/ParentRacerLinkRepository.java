@@ -4,6 +4,8 @@ import com.example.demo.model.Parent;
 import com.example.demo.model.ParentRacerLink;
 import com.example.demo.model.Racer;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 
@@ -13,6 +15,12 @@ public interface ParentRacerLinkRepository extends JpaRepository<ParentRacerLink
 
     boolean existsByParentAndRacer(Parent parent, Racer racer);
 
+    boolean existsByParentIdAndRacerId(Long parentId, Long racerId);
+
+    // ✅ Id-only load for RacerAccessIndex
+    @Query("select l.racer.id from ParentRacerLink l where l.parent.id = :parentId")
+    List<Long> findRacerIdsByParentId(@Param("parentId") Long parentId);
+
     // ✅ For delete-confirm modal (optional counts)
     long countByRacerId(Long racerId);
 
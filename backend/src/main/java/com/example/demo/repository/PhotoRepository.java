@@ -1,9 +1,16 @@
 package com.example.demo.repository;
 
 import com.example.demo.model.Photo;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 public interface PhotoRepository extends JpaRepository<Photo, Long> {
 
@@ -12,4 +19,49 @@ public interface PhotoRepository extends JpaRepository<Photo, Long> {
 
     // For home page preview (tweak number if you want)
     List<Photo> findTop8ByOrderByUploadedAtDesc();
-}
\ No newline at end of file
+
+    // Earlier photo of the same stored image whose variants are ready (dedupe reuse)
+    Optional<Photo> findFirstByImageUrlAndThumbUrlIsNotNullOrderByIdAsc(String imageUrl);
+
+    // ==========================================================
+    // Gallery feed: keyset pages on idx_photo_uploaded_id, newest first
+    // ==========================================================
+    @Query("SELECT p FROM Photo p ORDER BY p.uploadedAt DESC, p.id DESC")
+    List<Photo> findFeedFirst(Pageable limit);
+
+    @Query("""
+        SELECT p FROM Photo p
+        WHERE p.uploadedAt < :uploadedAt
+           OR (p.uploadedAt = :uploadedAt AND p.id < :id)
+        ORDER BY p.uploadedAt DESC, p.id DESC
+        """)
+    List<Photo> findFeedAfter(@Param("uploadedAt") LocalDateTime uploadedAt,
+                              @Param("id") Long id,
+                              Pageable limit);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE Photo p SET p.placeholder = :placeholder WHERE p.id = :id")
+    int updatePlaceholder(@Param("id") Long id, @Param("placeholder") String placeholder);
+
+    // Variant URLs/sizes only (never overwrites a concurrent title/caption edit)
+    @Modifying
+    @Transactional
+    @Query("""
+        UPDATE Photo p
+        SET p.thumbUrl = :thumbUrl, p.thumbWidth = :thumbWidth, p.thumbHeight = :thumbHeight,
+            p.mediumUrl = :mediumUrl, p.mediumWidth = :mediumWidth, p.mediumHeight = :mediumHeight,
+            p.fullUrl = :fullUrl, p.fullWidth = :fullWidth, p.fullHeight = :fullHeight
+        WHERE p.id = :id
+        """)
+    int updateVariants(@Param("id") Long id,
+                       @Param("thumbUrl") String thumbUrl,
+                       @Param("thumbWidth") Integer thumbWidth,
+                       @Param("thumbHeight") Integer thumbHeight,
+                       @Param("mediumUrl") String mediumUrl,
+                       @Param("mediumWidth") Integer mediumWidth,
+                       @Param("mediumHeight") Integer mediumHeight,
+                       @Param("fullUrl") String fullUrl,
+                       @Param("fullWidth") Integer fullWidth,
+                       @Param("fullHeight") Integer fullHeight);
+}
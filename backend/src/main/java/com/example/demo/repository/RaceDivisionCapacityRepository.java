@@ -0,0 +1,13 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.RaceDivisionCapacity;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+
+public interface RaceDivisionCapacityRepository extends JpaRepository<RaceDivisionCapacity, Long> {
+
+    List<RaceDivisionCapacity> findByRaceId(Long raceId);
+
+    void deleteByRaceId(Long raceId);
+}
@@ -1,7 +1,10 @@
 package com.example.demo.repository;
 
+import com.example.demo.dto.AdminResultRow;
 import com.example.demo.model.RaceResult;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
 import java.util.List;
 import java.util.Optional;
@@ -15,8 +18,52 @@ public interface RaceResultRepository extends JpaRepository<RaceResult, Long> {
     void deleteByRacerId(Long racerId);
 
     // ✅ Admin: load results for a single event + division
+    // (race/racer/parent come back in the same statement, no per-row loads)
+    @EntityGraph(attributePaths = {"race", "racer", "racer.parent"})
     List<RaceResult> findByRaceIdAndDivisionOrderByPlacementAsc(Long raceId, String division);
 
+    // ✅ Public results list: race/racer/parent in one statement
+    @EntityGraph(attributePaths = {"race", "racer", "racer.parent"})
+    @Query("select rr from RaceResult rr")
+    List<RaceResult> findAllWithRaceAndRacer();
+
+    // ✅ Admin results list: flat projection, DB-sorted (newest race first)
+    @Query("""
+        select new com.example.demo.dto.AdminResultRow(
+            rr.id, ra.id, ra.raceName, ra.raceDate,
+            r.id, r.firstName, r.lastName,
+            rr.division, rr.placement, r.carNumber)
+        from RaceResult rr
+        left join rr.race ra
+        left join rr.racer r
+        order by ra.raceDate desc nulls last,
+                 lower(coalesce(rr.division, '')),
+                 rr.placement
+        """)
+    List<AdminResultRow> findAdminRows();
+
     // ✅ Admin: upsert single racer’s result within a race
     Optional<RaceResult> findByRaceIdAndRacerId(Long raceId, Long racerId);
-}
\ No newline at end of file
+
+    // ==========================================================
+    // Standings bootstrap (one flat query, no per-row race/racer loads)
+    // ==========================================================
+    interface PlacementView {
+        Long getRacerId();
+        String getFirstName();
+        String getLastName();
+        String getDivision();
+        int getPlacement();
+    }
+
+    @Query("""
+        select r.id as racerId,
+               r.firstName as firstName,
+               r.lastName as lastName,
+               rr.division as division,
+               rr.placement as placement
+        from RaceResult rr
+        join rr.racer r
+        """)
+    List<PlacementView> findAllPlacements();
+}
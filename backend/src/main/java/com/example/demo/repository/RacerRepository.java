@@ -1,11 +1,17 @@
 package com.example.demo.repository;
 
+import com.example.demo.dto.RacerDivisionCount;
+import com.example.demo.dto.RacerListRow;
 import com.example.demo.model.Parent;
 import com.example.demo.model.Racer;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface RacerRepository extends JpaRepository<Racer, Long> {
@@ -29,6 +35,21 @@ public interface RacerRepository extends JpaRepository<Racer, Long> {
         return findAllVisibleToParent(parent.getId());
     }
 
+    // ✅ Id-only load for RacerAccessIndex (owned racers)
+    @Query("SELECT r.id FROM Racer r WHERE r.parent.id = :parentId")
+    List<Long> findIdsByParentId(@Param("parentId") Long parentId);
+
+    // ==========================================================
+    // Batch lookup (parent fetched in the same statement)
+    // ==========================================================
+    @Query("""
+        SELECT r
+        FROM Racer r
+        LEFT JOIN FETCH r.parent
+        WHERE r.id IN :ids
+        """)
+    List<Racer> findAllByIdWithParent(@Param("ids") Collection<Long> ids);
+
     // ==========================================================
     // Duplicate checks (per parent)
     // Rule: block duplicates for same parent on (first+last+age+nickname)
@@ -52,20 +73,83 @@ public interface RacerRepository extends JpaRepository<Racer, Long> {
     );
 
     // ==========================================================
-    // Admin search
+    // Admin list (DB-sorted on the indexed sort_key, keyset paged)
+    // Only racers with a guardian are listed.
+    // ==========================================================
+    @Query("""
+        SELECT new com.example.demo.dto.RacerListRow(
+            r.id, r.firstName, r.lastName, r.carNumber, r.age, r.division, p.email, r.sortKey)
+        FROM Racer r
+        JOIN r.parent p
+        ORDER BY r.sortKey, r.id
+        """)
+    List<RacerListRow> findAdminRows(Pageable limit);
+
+    @Query("""
+        SELECT new com.example.demo.dto.RacerListRow(
+            r.id, r.firstName, r.lastName, r.carNumber, r.age, r.division, p.email, r.sortKey)
+        FROM Racer r
+        JOIN r.parent p
+        WHERE r.sortKey > :sortKey
+           OR (r.sortKey = :sortKey AND r.id > :id)
+        ORDER BY r.sortKey, r.id
+        """)
+    List<RacerListRow> findAdminRowsAfter(@Param("sortKey") String sortKey,
+                                            @Param("id") Long id,
+                                            Pageable limit);
+
+    // Dashboard counts without shipping every row (same "has a guardian" rule as the list)
+    @Query("""
+        SELECT new com.example.demo.dto.RacerDivisionCount(r.division, r.age, count(r))
+        FROM Racer r
+        JOIN r.parent p
+        GROUP BY r.division, r.age
+        """)
+    List<RacerDivisionCount> countAdminRowsByDivision();
+
+    // Rows created before sort_key existed (or inserted by data.sql), and keys built with
+    // an older separator
+    default int backfillSortKeys() {
+        return backfillSortKeys(Racer.SORT_KEY_SEPARATOR);
+    }
+
+    @Modifying
+    @Transactional
+    @Query("""
+        UPDATE Racer r
+        SET r.sortKey = concat(lower(coalesce(r.lastName, '')), :sep,
+                               lower(coalesce(r.firstName, '')), :sep,
+                               lower(coalesce(r.carNumber, '')))
+        WHERE r.sortKey IS NULL OR locate(:sep, r.sortKey) = 0
+        """)
+    int backfillSortKeys(@Param("sep") String separator);
+
+    // ==========================================================
+    // Admin search: flat rows that seed RacerSearchIndex at startup
+    // (listed racers only, i.e. those with a guardian)
     // ==========================================================
+    interface SearchRow {
+        Long getId();
+        String getFirstName();
+        String getLastName();
+        String getNickname();
+        String getCarNumber();
+        int getAge();
+        String getDivision();
+        String getParentEmail();
+    }
+
     @Query("""
-       select distinct r
-       from Racer r
-       left join ParentRacerLink l on l.racer = r
-       where
-         (r.parent is not null or l.parent is not null)
-         and (
-             lower(r.firstName) like lower(concat('%', :q, '%'))
-          or lower(r.lastName) like lower(concat('%', :q, '%'))
-          or lower(r.carNumber) like lower(concat('%', :q, '%'))
-          or lower(r.nickname) like lower(concat('%', :q, '%'))
-         )
-       """)
-    List<Racer> searchAdminRacers(@Param("q") String q);
-}
\ No newline at end of file
+        SELECT r.id AS id,
+               r.firstName AS firstName,
+               r.lastName AS lastName,
+               r.nickname AS nickname,
+               r.carNumber AS carNumber,
+               r.age AS age,
+               r.division AS division,
+               p.email AS parentEmail
+        FROM Racer r
+        JOIN r.parent p
+        """)
+    List<SearchRow> findSearchRows();
+}
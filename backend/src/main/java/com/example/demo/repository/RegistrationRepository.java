@@ -1,11 +1,16 @@
 package com.example.demo.repository;
 
+import com.example.demo.dto.AdminRegistrationRow;
 import com.example.demo.model.Parent;
 import com.example.demo.model.Racer;
 import com.example.demo.model.Race;
 import com.example.demo.model.Registration;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -15,14 +20,74 @@ public interface RegistrationRepository extends JpaRepository<Registration, Long
     List<Registration> findByRacerParent(Parent parent);
 
     // 🔹 All registrations for a list of racer IDs (used when multiple parents share racers)
+    // (racer/parent/race come back in the same statement, no per-row loads)
+    @EntityGraph(attributePaths = {"racer", "racer.parent", "race"})
     List<Registration> findByRacerIdIn(List<Long> racerIds);
 
+    // ✅ Registration list with racer/parent/race in one statement
+    @EntityGraph(attributePaths = {"racer", "racer.parent", "race"})
+    @Query("SELECT reg FROM Registration reg")
+    List<Registration> findAllWithRacerAndRace();
+
     // 🔹 To avoid duplicates (one racer/race pair once)
     Optional<Registration> findByRacerAndRace(Racer racer, Race race);
 
     // ✅ Needed for "by race" admin endpoint
     List<Registration> findByRaceId(Long raceId);
 
+    // ==========================================================
+    // Admin roster rows (flat projection, one statement, DB-sorted)
+    // ==========================================================
+    @Query("""
+        SELECT new com.example.demo.dto.AdminRegistrationRow(
+            reg.id, ra.id, ra.raceName, ra.raceDate,
+            r.id, r.firstName, r.lastName, r.age, r.division, r.carNumber,
+            p.id, p.email, coalesce(reg.status, 'REGISTERED'))
+        FROM Registration reg
+        LEFT JOIN reg.race ra
+        LEFT JOIN reg.racer r
+        LEFT JOIN r.parent p
+        ORDER BY ra.raceDate DESC NULLS LAST,
+                 lower(ra.raceName) NULLS LAST,
+                 lower(r.division) NULLS LAST,
+                 lower(coalesce(r.lastName, '')),
+                 lower(coalesce(r.firstName, ''))
+        """)
+    List<AdminRegistrationRow> findAdminRows();
+
+    @Query("""
+        SELECT new com.example.demo.dto.AdminRegistrationRow(
+            reg.id, ra.id, ra.raceName, ra.raceDate,
+            r.id, r.firstName, r.lastName, r.age, r.division, r.carNumber,
+            p.id, p.email, coalesce(reg.status, 'REGISTERED'))
+        FROM Registration reg
+        JOIN reg.race ra
+        LEFT JOIN reg.racer r
+        LEFT JOIN r.parent p
+        WHERE ra.id = :raceId
+        ORDER BY lower(r.lastName) NULLS LAST,
+                 lower(r.firstName) NULLS LAST
+        """)
+    List<AdminRegistrationRow> findAdminRowsByRaceId(@Param("raceId") Long raceId);
+
+    // ✅ Roster rows for specific registrations (read model updates after create)
+    @Query("""
+        SELECT new com.example.demo.dto.AdminRegistrationRow(
+            reg.id, ra.id, ra.raceName, ra.raceDate,
+            r.id, r.firstName, r.lastName, r.age, r.division, r.carNumber,
+            p.id, p.email, coalesce(reg.status, 'REGISTERED'))
+        FROM Registration reg
+        JOIN reg.race ra
+        LEFT JOIN reg.racer r
+        LEFT JOIN r.parent p
+        WHERE reg.id IN :ids
+        """)
+    List<AdminRegistrationRow> findAdminRowsByIds(@Param("ids") Collection<Long> ids);
+
+    // ✅ Races a racer is registered for (seats to hand back before deleting the racer)
+    @Query("SELECT DISTINCT reg.race.id FROM Registration reg WHERE reg.racer.id = :racerId")
+    List<Long> findRaceIdsByRacerId(@Param("racerId") Long racerId);
+
     // ✅ Needed for deleting racer safely (removes dependent registrations first)
     void deleteByRacerId(Long racerId);
 
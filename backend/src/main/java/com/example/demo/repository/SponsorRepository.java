@@ -2,6 +2,10 @@ package com.example.demo.repository;
 
 import com.example.demo.model.Sponsor;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
@@ -9,4 +13,15 @@ public interface SponsorRepository extends JpaRepository<Sponsor, Long> {
 
     // Return all sponsors alphabetically — used for both the Sponsors page & Home page.
     List<Sponsor> findAllByOrderByNameAsc();
+
+    // Logos that still need a placeholder (startup backfill)
+    List<Sponsor> findByLogoPlaceholderIsNullAndLogoUrlIsNotNull();
+
+    // Only applies if the logo wasn't changed again while the placeholder was being computed
+    @Modifying
+    @Transactional
+    @Query("UPDATE Sponsor s SET s.logoPlaceholder = :placeholder WHERE s.id = :id AND s.logoUrl = :logoUrl")
+    int updateLogoPlaceholder(@Param("id") Long id,
+                              @Param("logoUrl") String logoUrl,
+                              @Param("placeholder") String placeholder);
 }
\ No newline at end of file
@@ -0,0 +1,7 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.StoredImage;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface StoredImageRepository extends JpaRepository<StoredImage, String> {
+}
@@ -0,0 +1,25 @@
+package com.example.demo.security;
+
+import java.security.Principal;
+
+/**
+ * The logged-in parent, resolved once per request by JwtAuthenticationFilter.
+ * Controllers receive it with {@code @AuthenticationPrincipal AuthenticatedParent me}.
+ */
+public record AuthenticatedParent(
+        Long id,
+        String email,
+        String role,
+        String firstName,
+        String lastName
+) implements Principal {
+
+    @Override
+    public String getName() {
+        return email;
+    }
+
+    public boolean isAdmin() {
+        return "ADMIN".equals(role);
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.demo.security;
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -19,9 +20,11 @@ import java.util.List;
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtUtil jwtUtil;
+    private final ParentPrincipalCache parentPrincipalCache;
 
-    public JwtAuthenticationFilter(JwtUtil jwtUtil) {
+    public JwtAuthenticationFilter(JwtUtil jwtUtil, ParentPrincipalCache parentPrincipalCache) {
         this.jwtUtil = jwtUtil;
+        this.parentPrincipalCache = parentPrincipalCache;
     }
 
     @Override
@@ -40,12 +43,19 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         String token = header.substring(7);
 
         try {
-            String email = jwtUtil.extractUsername(token);
+            // ✅ One verification per request; everything else reads these claims
+            Claims claims = jwtUtil.extractAllClaims(token);
+            request.setAttribute(JwtUtil.CLAIMS_ATTRIBUTE, claims);
 
-            if (email != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+            // ✅ Resolve the parent once per request (short-TTL cache, no email lookup on hits)
+            AuthenticatedParent principal = (SecurityContextHolder.getContext().getAuthentication() == null)
+                    ? parentPrincipalCache.resolve(claims)
+                    : null;
+
+            if (principal != null) {
 
                 // ✅ Pull role from token
-                String role = jwtUtil.extractClaim(token, claims -> claims.get("role", String.class));
+                String role = claims.get("role", String.class);
                 if (role == null || role.isBlank()) role = "USER";
 
                 // ✅ Spring expects ROLE_ prefix
@@ -53,7 +63,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                         List.of(new SimpleGrantedAuthority("ROLE_" + role));
 
                 UsernamePasswordAuthenticationToken auth =
-                        new UsernamePasswordAuthenticationToken(email, null, authorities);
+                        new UsernamePasswordAuthenticationToken(principal, null, authorities);
 
                 auth.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                 SecurityContextHolder.getContext().setAuthentication(auth);
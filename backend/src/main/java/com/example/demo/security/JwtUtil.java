@@ -1,14 +1,23 @@
 package com.example.demo.security;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.stereotype.Component;
 
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Collections;
 import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.function.Function;
 
 @Component
@@ -16,10 +25,24 @@ public class JwtUtil {
 
     private static final String SECRET_KEY = "H0NSnc77SmHQ6yhop5FyA3V+NKhFAYOaX7DlpOnElZI=";
 
-    private Key getSignKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(SECRET_KEY.trim());
-        return Keys.hmacShaKeyFor(keyBytes);
-    }
+    // ✅ Request attribute where JwtAuthenticationFilter leaves the verified claims
+    public static final String CLAIMS_ATTRIBUTE = JwtUtil.class.getName() + ".claims";
+
+    // Max verified tokens remembered (LRU); a token is only ever served until its own exp
+    private static final int MAX_CACHED_TOKENS = 2_000;
+
+    // Key + parser are immutable/thread-safe, so build them once
+    private final Key signKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET_KEY.trim()));
+    private final JwtParser parser = Jwts.parserBuilder().setSigningKey(signKey).build();
+
+    // token digest -> verified claims (raw tokens are never kept in memory)
+    private final Map<String, Claims> verified = Collections.synchronizedMap(
+            new LinkedHashMap<>(256, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Claims> eldest) {
+                    return size() > MAX_CACHED_TOKENS;
+                }
+            });
 
     public String extractUsername(String token) {
         return extractClaim(token, Claims::getSubject);
@@ -30,22 +53,53 @@ public class JwtUtil {
         return claimsResolver.apply(claims);
     }
 
-    private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSignKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+    /**
+     * Verified claims for a token. Signature is checked once per token; later calls
+     * (other filters/controllers in the same or later requests) are served from the cache
+     * until the token's own expiry.
+     */
+    public Claims extractAllClaims(String token) {
+        if (token == null || token.isBlank()) throw new IllegalArgumentException("JWT is empty");
+        String key = digest(token);
+
+        Claims cached = verified.get(key);
+        if (cached != null) {
+            Date exp = cached.getExpiration();
+            if (exp == null || exp.after(new Date())) return cached;
+            verified.remove(key); // expired: fall through so the parser throws ExpiredJwtException
+        }
+
+        Claims claims = parser.parseClaimsJws(token).getBody();
+        verified.put(key, claims);
+        return claims;
+    }
+
+    /**
+     * Claims already verified for this request by JwtAuthenticationFilter, or null.
+     */
+    public static Claims claimsFrom(HttpServletRequest request) {
+        Object attr = request.getAttribute(CLAIMS_ATTRIBUTE);
+        return (attr instanceof Claims c) ? c : null;
     }
 
-    // ✅ New: role stored as claim
-    public String generateToken(String email, String role) {
+    // ✅ role + parent id stored as claims (id lets requests skip the email lookup)
+    public String generateToken(String email, String role, Long parentId) {
         return Jwts.builder()
                 .setSubject(email)
                 .claim("role", role)
+                .claim(ParentPrincipalCache.PARENT_ID_CLAIM, parentId)
                 .setIssuedAt(new Date())
                 .setExpiration(new Date(System.currentTimeMillis() + 1000L * 60 * 60 * 10))
-                .signWith(getSignKey(), SignatureAlgorithm.HS256)
+                .signWith(signKey, SignatureAlgorithm.HS256)
                 .compact();
     }
-}
\ No newline at end of file
+
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.demo.security;
+
+import com.example.demo.model.Parent;
+import com.example.demo.repository.ParentRepository;
+import io.jsonwebtoken.Claims;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Short-TTL cache of parent snapshots for authenticated requests, so hot paths
+ * don't hit the parent table (or its lower(email) lookup) on every call.
+ */
+@Component
+public class ParentPrincipalCache {
+
+    public static final String PARENT_ID_CLAIM = "pid";
+
+    private static final long TTL_NANOS = 60L * 1_000_000_000L; // 60s
+    private static final int MAX_ENTRIES = 10_000;
+
+    private record Entry(AuthenticatedParent parent, long expiresAt) {}
+
+    private final ParentRepository parentRepository;
+    private final ConcurrentHashMap<String, Entry> byEmail = new ConcurrentHashMap<>();
+
+    public ParentPrincipalCache(ParentRepository parentRepository) {
+        this.parentRepository = parentRepository;
+    }
+
+    /**
+     * Resolve the parent behind verified token claims, or null if they no longer exist.
+     * Tokens carrying the parent id claim use a primary-key lookup on a miss;
+     * older tokens fall back to the email lookup.
+     */
+    public AuthenticatedParent resolve(Claims claims) {
+        String email = claims.getSubject();
+        if (email == null || email.isBlank()) return null;
+        String key = email.trim().toLowerCase();
+
+        long now = System.nanoTime();
+        Entry cached = byEmail.get(key);
+        if (cached != null && cached.expiresAt() - now > 0) return cached.parent();
+
+        Long parentId = claims.get(PARENT_ID_CLAIM, Long.class);
+        Optional<Parent> parentOpt = (parentId != null)
+                ? parentRepository.findById(parentId).filter(p -> key.equalsIgnoreCase(p.getEmail()))
+                : parentRepository.findByEmailIgnoreCase(key);
+
+        if (parentOpt.isEmpty()) {
+            byEmail.remove(key);
+            return null;
+        }
+
+        Parent p = parentOpt.get();
+        AuthenticatedParent resolved = new AuthenticatedParent(
+                p.getId(),
+                p.getEmail(),
+                p.getRole() == null ? "USER" : p.getRole().name(),
+                p.getFirstName(),
+                p.getLastName()
+        );
+
+        if (byEmail.size() >= MAX_ENTRIES) byEmail.clear(); // crude bound; entries are cheap to rebuild
+        byEmail.put(key, new Entry(resolved, now + TTL_NANOS));
+        return resolved;
+    }
+
+    public void evict(String email) {
+        if (email != null) byEmail.remove(email.trim().toLowerCase());
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.demo.service;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Remembers responses for client-supplied Idempotency-Key headers.
+ *
+ * Keys are scoped per parent, kept for TTL, and tied to a fingerprint of the request they
+ * were first used with, so a retry replays the stored response without touching the DB while
+ * a reused key with a different body is rejected instead of silently answered.
+ */
+@Service
+public class IdempotencyStore {
+
+    private static final Duration TTL = Duration.ofHours(24);
+    private static final int MAX_KEYS = 20_000;
+    private static final int MAX_KEY_LENGTH = 200;
+
+    private record Entry(String fingerprint, Object response, long expiresAt) {}
+
+    public sealed interface Lookup permits Miss, Replay, Conflict {}
+    public record Miss() implements Lookup {}
+    public record Replay(Object response) implements Lookup {}
+    public record Conflict() implements Lookup {}
+
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+
+    /**
+     * @throws IllegalArgumentException if the key is too long
+     */
+    public Lookup find(Long parentId, String key, String fingerprint) {
+        if (key == null || key.isBlank()) return new Miss();
+        Entry e = entries.get(scoped(parentId, key));
+        if (e == null || e.expiresAt() < System.currentTimeMillis()) return new Miss();
+        return Objects.equals(e.fingerprint(), fingerprint) ? new Replay(e.response()) : new Conflict();
+    }
+
+    public void remember(Long parentId, String key, String fingerprint, Object response) {
+        if (key == null || key.isBlank()) return;
+        if (entries.size() >= MAX_KEYS) prune();
+        if (entries.size() >= MAX_KEYS) entries.clear(); // still full of live keys: start over
+        entries.put(scoped(parentId, key),
+                new Entry(fingerprint, response, System.currentTimeMillis() + TTL.toMillis()));
+    }
+
+    @Scheduled(fixedDelay = 15 * 60 * 1000)
+    public void prune() {
+        long now = System.currentTimeMillis();
+        entries.values().removeIf(e -> e.expiresAt() < now);
+    }
+
+    private static String scoped(Long parentId, String key) {
+        String k = key.trim();
+        if (k.length() > MAX_KEY_LENGTH) throw new IllegalArgumentException("Idempotency-Key is too long.");
+        return parentId + ":" + k;
+    }
+}
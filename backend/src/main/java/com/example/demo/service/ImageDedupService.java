@@ -0,0 +1,139 @@
+package com.example.demo.service;
+
+import com.example.demo.model.StoredImage;
+import com.example.demo.repository.StoredImageRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Content-addressed image uploads. The part is streamed once through SHA-256 (it is
+ * already spooled by the multipart resolver, so this is a local read), then:
+ *  - hash known (memory, then stored_image) → existing URL, nothing sent to storage
+ *  - hash new → uploaded as "sha256/<hash>.<ext>" and recorded
+ * Identical uploads racing each other share a single transfer.
+ */
+@Service
+public class ImageDedupService {
+
+    private static final String PREFIX = "sha256/";
+
+    public record StoredUpload(String url, String contentHash, boolean duplicate) {}
+
+    private final SupabaseStorageService storageService;
+    private final StoredImageRepository storedImageRepository;
+
+    // hash → public URL (write-through copy of stored_image)
+    private final Map<String, String> urlsByHash = new ConcurrentHashMap<>();
+    // hash → upload in progress
+    private final Map<String, CompletableFuture<String>> inFlight = new ConcurrentHashMap<>();
+
+    public ImageDedupService(SupabaseStorageService storageService, StoredImageRepository storedImageRepository) {
+        this.storageService = storageService;
+        this.storedImageRepository = storedImageRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warm() {
+        storedImageRepository.findAll().forEach(s -> urlsByHash.put(s.getContentHash(), s.getUrl()));
+    }
+
+    // =========================================================
+    // Upload
+    // =========================================================
+
+    public StoredUpload store(MultipartFile file) throws IOException {
+        String hash = sha256(file);
+
+        String known = lookup(hash);
+        if (known != null) return new StoredUpload(known, hash, true);
+
+        CompletableFuture<String> mine = new CompletableFuture<>();
+        CompletableFuture<String> other = inFlight.putIfAbsent(hash, mine);
+        if (other != null) {
+            return new StoredUpload(await(other), hash, true);
+        }
+
+        try {
+            String url = storageService.uploadImage(file, PREFIX + hash + safeExtension(file.getOriginalFilename()));
+            record(hash, url, file.getSize());
+            mine.complete(url);
+            return new StoredUpload(url, hash, false);
+        } catch (IOException | RuntimeException ex) {
+            mine.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            inFlight.remove(hash, mine);
+        }
+    }
+
+    private String lookup(String hash) {
+        String url = urlsByHash.get(hash);
+        if (url != null) return url;
+
+        // e.g. uploaded through another instance since startup
+        return storedImageRepository.findById(hash)
+                .map(s -> {
+                    urlsByHash.put(hash, s.getUrl());
+                    return s.getUrl();
+                })
+                .orElse(null);
+    }
+
+    private void record(String hash, String url, long size) {
+        try {
+            storedImageRepository.save(new StoredImage(hash, url, size));
+        } catch (DataIntegrityViolationException alreadyThere) {
+            // another instance recorded the same bytes first; same object, same URL
+        }
+        urlsByHash.put(hash, url);
+    }
+
+    private static String await(CompletableFuture<String> upload) throws IOException {
+        try {
+            return upload.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof IOException io) throw io;
+            if (ex.getCause() instanceof RuntimeException re) throw re;
+            throw ex;
+        }
+    }
+
+    // =========================================================
+    // Hashing
+    // =========================================================
+
+    // ✅ Reads the part in small buffers; never the whole file at once
+    static String sha256(MultipartFile file) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        try (InputStream in = new DigestInputStream(file.getInputStream(), digest)) {
+            in.transferTo(OutputStream.nullOutputStream());
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    // Keeps object names predictable: ".jpg", ".png", ... or nothing
+    private static String safeExtension(String originalFilename) {
+        String ext = SupabaseStorageService.extension(originalFilename).toLowerCase();
+        return ext.matches("\\.[a-z0-9]{1,5}") ? ext : "";
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.demo.service;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.util.Base64;
+
+/**
+ * Low-quality image placeholders (LQIP): a ~16px JPEG as an inline data URI.
+ * Browsers paint it instantly (no extra request, no decoder library); the frontend
+ * stretches and blurs it until the real image arrives. About 1 KB as a data URI.
+ */
+public final class ImagePlaceholders {
+
+    public static final int EDGE = 16;
+    private static final float QUALITY = 0.5f;
+
+    private ImagePlaceholders() {}
+
+    public static String dataUri(BufferedImage img) throws IOException {
+        BufferedImage tiny = PhotoVariantService.scale(img, EDGE);
+        byte[] jpeg = PhotoVariantService.encodeJpeg(tiny, QUALITY);
+        return "data:image/jpeg;base64," + Base64.getEncoder().encodeToString(jpeg);
+    }
+}
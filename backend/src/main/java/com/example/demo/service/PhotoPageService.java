@@ -0,0 +1,131 @@
+package com.example.demo.service;
+
+import com.example.demo.model.Photo;
+import com.example.demo.repository.PhotoRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keyset-paged gallery feed, newest first, on idx_photo_uploaded_id (uploaded_at, id).
+ *
+ * Every page is one index range scan of size+1 rows, however deep the scroll. The first
+ * page at the default size (home preview + top of the gallery) is kept pre-serialized with
+ * a content-hash ETag, so repeat visits cost a 304 or a byte copy. Anything that changes
+ * what the feed shows (upload, new placeholder/variants) calls invalidate().
+ */
+@Service
+public class PhotoPageService {
+
+    public static final int DEFAULT_PAGE_SIZE = 24;
+    public static final int MAX_PAGE_SIZE = 100;
+
+    // One page of the feed; nextCursor is null on the last page
+    public record PhotoPage(List<Photo> items, String nextCursor) {}
+
+    // Serialized first page + its ETag, tagged with the generation it was built from
+    public record CachedPage(long generation, byte[] json, String etag) {}
+
+    private final PhotoRepository photoRepository;
+    private final ObjectMapper objectMapper;
+
+    private final AtomicLong generation = new AtomicLong();
+    private volatile CachedPage firstPage;
+
+    public PhotoPageService(PhotoRepository photoRepository, ObjectMapper objectMapper) {
+        this.photoRepository = photoRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    // =========================================================
+    // Pages
+    // =========================================================
+
+    /**
+     * @throws IllegalArgumentException if the cursor is malformed
+     */
+    public PhotoPage page(int size, String cursor) {
+        int safeSize = Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+        // fetch one extra row to know whether another page exists
+        PageRequest limit = PageRequest.of(0, safeSize + 1);
+
+        List<Photo> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = photoRepository.findFeedFirst(limit);
+        } else {
+            Cursor c = decodeCursor(cursor);
+            rows = photoRepository.findFeedAfter(c.uploadedAt(), c.id(), limit);
+        }
+
+        if (rows.size() <= safeSize) return new PhotoPage(rows, null);
+
+        List<Photo> page = List.copyOf(rows.subList(0, safeSize));
+        Photo last = page.get(page.size() - 1);
+        return new PhotoPage(page, encodeCursor(last.getId(), last.getUploadedAt()));
+    }
+
+    // First page at DEFAULT_PAGE_SIZE, served from memory after the first build
+    public CachedPage firstPage() {
+        CachedPage cached = firstPage;
+        long gen = generation.get();
+        if (cached != null && cached.generation() == gen) return cached;
+
+        // Built against the generation read *before* the query: an upload that lands
+        // meanwhile bumps it, so this copy is never served as current
+        PhotoPage page = page(DEFAULT_PAGE_SIZE, null);
+        byte[] json;
+        try {
+            json = objectMapper.writeValueAsBytes(page);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Could not serialize gallery page", ex);
+        }
+        CachedPage built = new CachedPage(gen, json, etag(json));
+        firstPage = built;
+        return built;
+    }
+
+    public void invalidate() {
+        AfterCommit.run(generation::incrementAndGet);
+    }
+
+    // =========================================================
+    // Cursor = base64url("<id>:<uploadedAt ISO>")
+    // =========================================================
+
+    private record Cursor(Long id, LocalDateTime uploadedAt) {}
+
+    private static String encodeCursor(Long id, LocalDateTime uploadedAt) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((id + ":" + uploadedAt).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Cursor decodeCursor(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int sep = raw.indexOf(':');
+            if (sep <= 0) throw new IllegalArgumentException("Invalid cursor.");
+            return new Cursor(Long.valueOf(raw.substring(0, sep)), LocalDateTime.parse(raw.substring(sep + 1)));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor.");
+        }
+    }
+
+    private static String etag(byte[] json) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(json);
+            return "\"" + HexFormat.of().formatHex(digest, 0, 16) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
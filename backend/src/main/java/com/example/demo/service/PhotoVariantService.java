@@ -0,0 +1,366 @@
+package com.example.demo.service;
+
+import com.example.demo.model.Photo;
+import com.example.demo.repository.PhotoRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Post-upload pipeline for gallery photos.
+ *
+ * The controller hands over the uploaded file; it is copied to a temp file (streamed, the
+ * multipart part is gone once the request ends) and queued for a small fixed worker pool.
+ * Each job decodes the image once (subsampled while decoding when it is far larger than
+ * the biggest variant), applies the EXIF orientation, renders thumb/medium/full JPEGs from
+ * largest to smallest, uploads them without any metadata (no GPS/camera EXIF) and stores
+ * their URLs and pixel sizes on the Photo. A tiny inline placeholder is derived from the
+ * thumbnail and saved first, before the (slower) variant uploads. If the queue is full the
+ * photo simply keeps its original only.
+ */
+@Service
+public class PhotoVariantService {
+
+    // Long-edge targets (never upscaled)
+    public static final int THUMB_EDGE = 320;
+    public static final int MEDIUM_EDGE = 960;
+    public static final int FULL_EDGE = 1920;
+
+    private static final float JPEG_QUALITY = 0.82f;
+    private static final int QUEUE_CAPACITY = 32;
+
+    public record Variant(String url, int width, int height) {}
+
+    private final SupabaseStorageService storageService;
+    private final PhotoRepository photoRepository;
+    private final PhotoPageService photoPageService;
+    private final ThreadPoolExecutor pool;
+
+    public PhotoVariantService(SupabaseStorageService storageService,
+                               PhotoRepository photoRepository,
+                               PhotoPageService photoPageService) {
+        this.storageService = storageService;
+        this.photoRepository = photoRepository;
+        this.photoPageService = photoPageService;
+
+        // Decoded photos are large (a 12MP frame is ~48MB as RGB), so keep the pool small
+        int workers = Math.max(1, Math.min(2, Runtime.getRuntime().availableProcessors() / 2));
+        AtomicInteger n = new AtomicInteger();
+        this.pool = new ThreadPoolExecutor(workers, workers, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(QUEUE_CAPACITY),
+                r -> {
+                    Thread t = new Thread(r, "photo-variants-" + n.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        ImageIO.setUseCache(false); // decode in memory, not via ImageIO's temp-file cache
+    }
+
+    // =========================================================
+    // Submit (request thread)
+    // =========================================================
+
+    public void submit(Long photoId, MultipartFile file) {
+        if (photoId == null || file == null || file.isEmpty()) return;
+
+        Path source;
+        try {
+            source = Files.createTempFile("photo-" + photoId + "-", ".upload");
+            try (InputStream in = file.getInputStream()) {
+                Files.copy(in, source, java.nio.file.StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException ex) {
+            System.err.println("Photo " + photoId + ": could not stage upload for resizing: " + ex.getMessage());
+            return;
+        }
+
+        try {
+            pool.execute(() -> process(photoId, source));
+        } catch (RejectedExecutionException busy) {
+            System.err.println("Photo " + photoId + ": resize queue full, keeping original only.");
+            deleteQuietly(source);
+        }
+    }
+
+    // ✅ Same image already processed for another photo (dedupe hit): copy its placeholder
+    // and variants instead of decoding and uploading them again. False if none are ready yet.
+    public boolean reuse(Long photoId, String imageUrl) {
+        if (photoId == null || imageUrl == null) return false;
+        Photo donor = photoRepository.findFirstByImageUrlAndThumbUrlIsNotNullOrderByIdAsc(imageUrl).orElse(null);
+        if (donor == null) return false;
+
+        if (donor.getPlaceholder() != null) {
+            photoRepository.updatePlaceholder(photoId, donor.getPlaceholder());
+        }
+        photoRepository.updateVariants(photoId,
+                donor.getThumbUrl(), donor.getThumbWidth(), donor.getThumbHeight(),
+                donor.getMediumUrl(), donor.getMediumWidth(), donor.getMediumHeight(),
+                donor.getFullUrl(), donor.getFullWidth(), donor.getFullHeight());
+        photoPageService.invalidate();
+        return true;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    // =========================================================
+    // Worker
+    // =========================================================
+
+    private void process(Long photoId, Path source) {
+        try {
+            BufferedImage image = decode(source, FULL_EDGE);
+            if (image == null) {
+                System.err.println("Photo " + photoId + ": unsupported image format, keeping original only.");
+                return;
+            }
+
+            BufferedImage full = scale(image, FULL_EDGE);
+            BufferedImage medium = scale(full, MEDIUM_EDGE);
+            BufferedImage thumb = scale(medium, THUMB_EDGE);
+
+            // ✅ Placeholder first: the gallery can paint something long before variants land
+            photoRepository.updatePlaceholder(photoId, ImagePlaceholders.dataUri(thumb));
+            photoPageService.invalidate();
+
+            String base = "variants/" + photoId + "-" + UUID.randomUUID();
+            Variant f = upload(base + "-full.jpg", full);
+            Variant m = upload(base + "-medium.jpg", medium);
+            Variant t = upload(base + "-thumb.jpg", thumb);
+
+            photoRepository.updateVariants(photoId,
+                    t.url(), t.width(), t.height(),
+                    m.url(), m.width(), m.height(),
+                    f.url(), f.width(), f.height());
+            photoPageService.invalidate();
+        } catch (Exception ex) {
+            System.err.println("Photo " + photoId + ": resize failed: " + ex.getMessage());
+        } finally {
+            deleteQuietly(source);
+        }
+    }
+
+    private Variant upload(String fileName, BufferedImage img) throws IOException {
+        String url = storageService.uploadBytes(fileName, encodeJpeg(img), "image/jpeg");
+        return new Variant(url, img.getWidth(), img.getHeight());
+    }
+
+    // =========================================================
+    // Imaging
+    // =========================================================
+
+    // Single decode, subsampled by an integer factor when the source is 2x+ the largest variant
+    static BufferedImage decode(Path source, int maxEdge) throws IOException {
+        int orientation = readExifOrientation(source);
+        try (ImageInputStream in = ImageIO.createImageInputStream(source.toFile())) {
+            BufferedImage img = decode(in, maxEdge);
+            return img == null ? null : orient(img, orientation);
+        }
+    }
+
+    // Same, from any stream (no EXIF orientation); null if ImageIO can't read the format
+    static BufferedImage decode(ImageInputStream in, int maxEdge) throws IOException {
+        if (in == null) return null;
+        Iterator<ImageReader> readers = ImageIO.getImageReaders(in);
+        if (!readers.hasNext()) return null;
+
+        ImageReader reader = readers.next();
+        try {
+            reader.setInput(in, true, true); // ignore metadata while decoding
+            int longEdge = Math.max(reader.getWidth(0), reader.getHeight(0));
+            ImageReadParam param = reader.getDefaultReadParam();
+            int factor = longEdge / maxEdge;
+            if (factor >= 2) param.setSourceSubsampling(factor, factor, 0, 0);
+            return toRgb(reader.read(0, param));
+        } finally {
+            reader.dispose();
+        }
+    }
+
+    // Progressive halving, then one final bilinear step (sharp thumbnails without aliasing)
+    static BufferedImage scale(BufferedImage src, int maxEdge) {
+        int w = src.getWidth();
+        int h = src.getHeight();
+        double f = Math.min(1.0, maxEdge / (double) Math.max(w, h));
+        int tw = Math.max(1, (int) Math.round(w * f));
+        int th = Math.max(1, (int) Math.round(h * f));
+
+        BufferedImage cur = src;
+        while (cur.getWidth() / 2 >= tw && cur.getHeight() / 2 >= th) {
+            cur = draw(cur, cur.getWidth() / 2, cur.getHeight() / 2);
+        }
+        if (cur.getWidth() != tw || cur.getHeight() != th) cur = draw(cur, tw, th);
+        return cur;
+    }
+
+    private static BufferedImage draw(BufferedImage src, int w, int h) {
+        BufferedImage out = new BufferedImage(w, h, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = out.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.drawImage(src, 0, 0, w, h, null);
+        } finally {
+            g.dispose();
+        }
+        return out;
+    }
+
+    // JPEG has no alpha: flatten onto white
+    private static BufferedImage toRgb(BufferedImage src) {
+        if (src.getType() == BufferedImage.TYPE_INT_RGB) return src;
+        BufferedImage out = new BufferedImage(src.getWidth(), src.getHeight(), BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = out.createGraphics();
+        try {
+            g.setColor(Color.WHITE);
+            g.fillRect(0, 0, out.getWidth(), out.getHeight());
+            g.drawImage(src, 0, 0, null);
+        } finally {
+            g.dispose();
+        }
+        return out;
+    }
+
+    // Writes pixels only (null metadata), so EXIF/GPS from the phone never reaches the variants
+    static byte[] encodeJpeg(BufferedImage img) throws IOException {
+        return encodeJpeg(img, JPEG_QUALITY);
+    }
+
+    static byte[] encodeJpeg(BufferedImage img, float quality) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ImageOutputStream out = ImageIO.createImageOutputStream(bytes)) {
+            writer.setOutput(out);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(quality);
+            writer.write(null, new IIOImage(img, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return bytes.toByteArray();
+    }
+
+    // =========================================================
+    // EXIF orientation (tag 0x0112 in IFD0 of a JPEG APP1 "Exif" segment)
+    // =========================================================
+
+    static int readExifOrientation(Path source) {
+        try (DataInputStream in = new DataInputStream(Files.newInputStream(source))) {
+            if (in.readUnsignedShort() != 0xFFD8) return 1; // not a JPEG
+
+            while (true) {
+                int marker = in.readUnsignedShort();
+                if ((marker & 0xFF00) != 0xFF00 || marker == 0xFFDA) return 1; // start of scan: no EXIF
+                int length = in.readUnsignedShort() - 2;
+                if (length < 0) return 1;
+
+                if (marker != 0xFFE1) {
+                    in.skipNBytes(length);
+                    continue;
+                }
+
+                byte[] seg = in.readNBytes(length);
+                if (seg.length < 14 || seg[0] != 'E' || seg[1] != 'x' || seg[2] != 'i' || seg[3] != 'f') {
+                    continue;
+                }
+                return orientationFromTiff(seg, 6);
+            }
+        } catch (IOException | RuntimeException ex) {
+            return 1;
+        }
+    }
+
+    private static int orientationFromTiff(byte[] b, int tiff) {
+        boolean little = b[tiff] == 'I';
+        int ifd = tiff + readInt(b, tiff + 4, little);
+        int entries = readShort(b, ifd, little);
+        for (int i = 0; i < entries; i++) {
+            int e = ifd + 2 + i * 12;
+            if (e + 12 > b.length) break;
+            if (readShort(b, e, little) == 0x0112) {
+                int value = readShort(b, e + 8, little);
+                return value >= 1 && value <= 8 ? value : 1;
+            }
+        }
+        return 1;
+    }
+
+    private static int readShort(byte[] b, int at, boolean little) {
+        int b0 = b[at] & 0xFF, b1 = b[at + 1] & 0xFF;
+        return little ? (b1 << 8) | b0 : (b0 << 8) | b1;
+    }
+
+    private static int readInt(byte[] b, int at, boolean little) {
+        int hi = readShort(b, at, little), lo = readShort(b, at + 2, little);
+        return little ? (lo << 16) | hi : (hi << 16) | lo;
+    }
+
+    // Rotate/flip so the pixels are upright once the EXIF tag is dropped
+    private static BufferedImage orient(BufferedImage src, int orientation) {
+        if (orientation <= 1 || orientation > 8) return src;
+
+        int w = src.getWidth();
+        int h = src.getHeight();
+        boolean swap = orientation >= 5;
+        AffineTransform t = new AffineTransform();
+        switch (orientation) {
+            case 2 -> { t.translate(w, 0); t.scale(-1, 1); }
+            case 3 -> { t.translate(w, h); t.rotate(Math.PI); }
+            case 4 -> { t.translate(0, h); t.scale(1, -1); }
+            case 5 -> { t.rotate(-Math.PI / 2); t.scale(-1, 1); }
+            case 6 -> { t.translate(h, 0); t.rotate(Math.PI / 2); }
+            case 7 -> { t.scale(-1, 1); t.translate(-h, 0); t.translate(0, w); t.rotate(-Math.PI / 2); }
+            case 8 -> { t.translate(0, w); t.rotate(-Math.PI / 2); }
+            default -> { return src; }
+        }
+
+        BufferedImage out = new BufferedImage(swap ? h : w, swap ? w : h, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = out.createGraphics();
+        try {
+            g.drawImage(src, t, null);
+        } finally {
+            g.dispose();
+        }
+        return out;
+    }
+
+    private static void deleteQuietly(Path p) {
+        try {
+            Files.deleteIfExists(p);
+        } catch (IOException ignored) {
+            // temp dir is cleaned up eventually anyway
+        }
+    }
+}
@@ -0,0 +1,358 @@
+package com.example.demo.service;
+
+import com.example.demo.model.Race;
+import com.example.demo.model.RaceDivisionCapacity;
+import com.example.demo.model.Registration;
+import com.example.demo.repository.RaceDivisionCapacityRepository;
+import com.example.demo.repository.RaceRepository;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Seat admission for races with a capacity (overall and/or per division).
+ *
+ * Each capped race has in-memory atomic seat counters, loaded once from the DB. A sign-up
+ * reserves a seat with a CAS on the counters (no count(*) per request) and the caller inserts
+ * REGISTERED or WAITLISTED accordingly, then commits or cancels the Ticket.
+ *
+ * Reservations hold the race's read lock until the row is committed; reconciliation
+ * (after deletes, capacity edits, and on a timer) takes the write lock, recounts from the DB
+ * and promotes the oldest waitlisted sign-ups into any free seats. So a recount never misses
+ * an in-flight insert, and a burst of concurrent sign-ups never over-admits.
+ */
+@Service
+public class RaceCapacityService {
+
+    private static final int PROMOTION_BATCH = 200;
+
+    // Seat limits for one race (division keys normalized); null total = no overall cap
+    private record Caps(Integer total, Map<String, Integer> perDivision) {
+        boolean unlimited() {
+            return total == null && perDivision.isEmpty();
+        }
+    }
+
+    private static final Caps NO_CAPS = new Caps(null, Map.of());
+
+    // Live seat counters for one capped race
+    private static final class Slots {
+        final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        final AtomicInteger total = new AtomicInteger();
+        final ConcurrentHashMap<String, AtomicInteger> byDivision = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * One seat decision. admitted() says whether to insert REGISTERED (true) or WAITLISTED.
+     * Always finish with commit() (row written) or cancel() (nothing written).
+     */
+    public final class Ticket {
+        private final Slots slots;
+        private final String division;
+        private final boolean admitted;
+        private boolean done;
+
+        private Ticket(Slots slots, String division, boolean admitted) {
+            this.slots = slots;
+            this.division = division;
+            this.admitted = admitted;
+        }
+
+        public boolean admitted() {
+            return admitted;
+        }
+
+        public void commit() {
+            finish(false);
+        }
+
+        public void cancel() {
+            finish(true);
+        }
+
+        private void finish(boolean giveBack) {
+            if (done) return;
+            done = true;
+            if (slots == null) return;
+            if (giveBack && admitted) release(slots, division);
+            slots.lock.readLock().unlock();
+        }
+    }
+
+    private final RaceRepository raceRepository;
+    private final RaceDivisionCapacityRepository divisionCapacityRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final RosterReadModel rosterReadModel;
+    private final TransactionTemplate reconcileTx;
+
+    private final ConcurrentHashMap<Long, Caps> capsByRace = new ConcurrentHashMap<>();
+    // Bumped on every caps invalidation; a load that overlapped one is used once but not cached
+    private final AtomicLong capsEpoch = new AtomicLong();
+    private final ConcurrentHashMap<Long, Slots> slotsByRace = new ConcurrentHashMap<>();
+
+    public RaceCapacityService(RaceRepository raceRepository,
+                               RaceDivisionCapacityRepository divisionCapacityRepository,
+                               JdbcTemplate jdbcTemplate,
+                               RosterReadModel rosterReadModel,
+                               PlatformTransactionManager transactionManager) {
+        this.raceRepository = raceRepository;
+        this.divisionCapacityRepository = divisionCapacityRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.rosterReadModel = rosterReadModel;
+
+        // Own transaction: reconcile usually runs from afterCommit(), where the caller's is already done
+        this.reconcileTx = new TransactionTemplate(transactionManager);
+        this.reconcileTx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    // =========================================================
+    // Admission
+    // =========================================================
+
+    // True if admission for this race depends on the racer's division
+    public boolean usesDivisions(Long raceId) {
+        return !capsFor(raceId).perDivision().isEmpty();
+    }
+
+    public Ticket reserve(Long raceId, String racerDivision) {
+        Caps caps = capsFor(raceId);
+        if (caps.unlimited()) return new Ticket(null, null, true);
+
+        String division = normalize(racerDivision);
+        Slots slots = slotsFor(raceId);
+        slots.lock.readLock().lock();
+        try {
+            return new Ticket(slots, division, tryAdmit(caps, slots, division));
+        } catch (RuntimeException ex) {
+            slots.lock.readLock().unlock();
+            throw ex;
+        }
+    }
+
+    private static boolean tryAdmit(Caps caps, Slots slots, String division) {
+        if (caps.total() != null && !increment(slots.total, caps.total())) return false;
+
+        Integer divisionCap = caps.perDivision().get(division);
+        if (divisionCap != null) {
+            AtomicInteger counter = slots.byDivision.computeIfAbsent(division, k -> new AtomicInteger());
+            if (!increment(counter, divisionCap)) {
+                if (caps.total() != null) slots.total.decrementAndGet();
+                return false;
+            }
+        } else if (division != null) {
+            slots.byDivision.computeIfAbsent(division, k -> new AtomicInteger()).incrementAndGet();
+        }
+        return true;
+    }
+
+    // CAS loop: take a seat only while under the cap
+    private static boolean increment(AtomicInteger counter, int cap) {
+        while (true) {
+            int current = counter.get();
+            if (current >= cap) return false;
+            if (counter.compareAndSet(current, current + 1)) return true;
+        }
+    }
+
+    private static void release(Slots slots, String division) {
+        slots.total.decrementAndGet();
+        if (division != null) {
+            AtomicInteger counter = slots.byDivision.get(division);
+            if (counter != null) counter.decrementAndGet();
+        }
+    }
+
+    // =========================================================
+    // Change hooks (after commit)
+    // =========================================================
+
+    // Registrations deleted (or a racer with registrations removed): recount + promote
+    public void registrationsRemoved(Collection<Long> raceIds) {
+        if (raceIds == null || raceIds.isEmpty()) return;
+        Set<Long> ids = new HashSet<>(raceIds);
+        AfterCommit.run(() -> ids.forEach(this::reconcile));
+    }
+
+    // A racer moved division: their seats now count against another division's cap
+    public void racerDivisionChanged(Long racerId) {
+        if (racerId == null) return;
+        AfterCommit.run(() -> {
+            List<Long> raceIds = jdbcTemplate.queryForList(
+                    "select distinct race_id from registration where racer_id = ?", Long.class, racerId);
+            raceIds.forEach(this::reconcile);
+        });
+    }
+
+    // Capacity edited: reload limits, recount, promote into any new seats
+    public void capacityChanged(Long raceId) {
+        if (raceId == null) return;
+        AfterCommit.run(() -> {
+            invalidateCaps(raceId);
+            reconcile(raceId);
+        });
+    }
+
+    public void raceRemoved(Long raceId) {
+        if (raceId == null) return;
+        AfterCommit.run(() -> {
+            invalidateCaps(raceId);
+            slotsByRace.remove(raceId);
+        });
+    }
+
+    // =========================================================
+    // Reconciliation with the DB
+    // =========================================================
+
+    // Safety net: recount every loaded race so counters can't drift for long
+    @Scheduled(fixedDelay = 5 * 60 * 1000, initialDelay = 5 * 60 * 1000)
+    public void reconcileAll() {
+        for (Long raceId : new ArrayList<>(slotsByRace.keySet())) {
+            reconcile(raceId);
+        }
+    }
+
+    public void reconcile(Long raceId) {
+        // Uncapped and never tracked: no counters to fix and nobody can be waitlisted
+        if (!slotsByRace.containsKey(raceId) && capsFor(raceId).unlimited()) return;
+
+        Slots slots = slotsFor(raceId);
+
+        slots.lock.writeLock().lock();
+        try {
+            // Read under the write lock, so a capacity edit that just landed is what we recount against
+            Caps caps = capsFor(raceId);
+            // Promotions commit before the lock is released, so the next recount sees them
+            Integer promoted = reconcileTx.execute(tx -> {
+                loadCounts(raceId, slots);
+                return caps.unlimited() ? promoteAll(raceId) : promote(raceId, caps, slots);
+            });
+            // reconcileTx has committed here; reload now rather than via AfterCommit, which
+            // would be lost when reconcile itself runs inside an afterCommit callback
+            if (promoted != null && promoted > 0) rosterReadModel.reloadRace(raceId);
+
+            // Capacity removed: everyone is in now, so stop tracking (and re-counting) this race
+            if (caps.unlimited()) slotsByRace.remove(raceId, slots);
+        } catch (RuntimeException ex) {
+            System.err.println("Capacity reconcile failed for race " + raceId + ": " + ex.getMessage());
+        } finally {
+            slots.lock.writeLock().unlock();
+        }
+    }
+
+    // Oldest waitlisted first; anyone whose division still has room gets the seat (write lock held)
+    private int promote(Long raceId, Caps caps, Slots slots) {
+        if (caps.total() != null && slots.total.get() >= caps.total()) return 0;
+
+        List<Map<String, Object>> waiting = jdbcTemplate.queryForList("""
+                select g.id as id, r.division as division
+                from registration g
+                join racer r on r.id = g.racer_id
+                where g.race_id = ? and g.status = ?
+                order by g.id
+                """, raceId, Registration.WAITLISTED);
+
+        int checked = 0;
+        int promoted = 0;
+        for (Map<String, Object> w : waiting) {
+            if (++checked > PROMOTION_BATCH) break;
+            if (caps.total() != null && slots.total.get() >= caps.total()) break;
+
+            String division = normalize((String) w.get("division"));
+            if (!tryAdmit(caps, slots, division)) continue;
+
+            int updated = jdbcTemplate.update(
+                    "update registration set status = ? where id = ? and status = ?",
+                    Registration.REGISTERED, ((Number) w.get("id")).longValue(), Registration.WAITLISTED);
+            if (updated == 0) release(slots, division);
+            else promoted++;
+        }
+        return promoted;
+    }
+
+    // Capacity removed: everyone waiting gets in
+    private int promoteAll(Long raceId) {
+        return jdbcTemplate.update("update registration set status = ? where race_id = ? and status = ?",
+                Registration.REGISTERED, raceId, Registration.WAITLISTED);
+    }
+
+    private void loadCounts(Long raceId, Slots slots) {
+        Map<String, Integer> byDivision = new HashMap<>();
+        jdbcTemplate.query("""
+                select r.division, count(*)
+                from registration g
+                join racer r on r.id = g.racer_id
+                where g.race_id = ? and g.status = ?
+                group by r.division
+                """, rs -> {
+            byDivision.merge(normalize(rs.getString(1)), rs.getInt(2), Integer::sum);
+        }, raceId, Registration.REGISTERED);
+
+        slots.byDivision.clear();
+        int total = 0;
+        for (Map.Entry<String, Integer> e : byDivision.entrySet()) {
+            total += e.getValue();
+            if (e.getKey() != null) slots.byDivision.put(e.getKey(), new AtomicInteger(e.getValue()));
+        }
+        slots.total.set(total);
+    }
+
+    // =========================================================
+    // Caches
+    // =========================================================
+
+    private Caps capsFor(Long raceId) {
+        if (raceId == null) return NO_CAPS;
+        Caps cached = capsByRace.get(raceId);
+        if (cached != null) return cached;
+
+        long epoch = capsEpoch.get();
+        Optional<Race> race = raceRepository.findById(raceId);
+        if (race.isEmpty()) return NO_CAPS; // unknown race: the FK rejects the insert
+
+        Map<String, Integer> perDivision = new HashMap<>();
+        for (RaceDivisionCapacity c : divisionCapacityRepository.findByRaceId(raceId)) {
+            perDivision.put(normalize(c.getDivision()), c.getCapacity());
+        }
+        Caps caps = new Caps(race.get().getCapacity(), Map.copyOf(perDivision));
+        // Cache only if no invalidation happened while we were loading (the cache never expires)
+        capsByRace.compute(raceId, (id, current) ->
+                current != null ? current : (capsEpoch.get() == epoch ? caps : null));
+        return caps;
+    }
+
+    private void invalidateCaps(Long raceId) {
+        capsEpoch.incrementAndGet();
+        capsByRace.remove(raceId);
+    }
+
+    private Slots slotsFor(Long raceId) {
+        Slots existing = slotsByRace.get(raceId);
+        if (existing != null) return existing;
+
+        Slots fresh = new Slots();
+        fresh.lock.writeLock().lock();
+        try {
+            Slots raced = slotsByRace.putIfAbsent(raceId, fresh);
+            if (raced != null) return raced;
+            loadCounts(raceId, fresh);
+            return fresh;
+        } finally {
+            fresh.lock.writeLock().unlock();
+        }
+    }
+
+    public static String normalize(String division) {
+        if (division == null || division.isBlank()) return null;
+        return division.trim().toLowerCase(Locale.ROOT);
+    }
+}
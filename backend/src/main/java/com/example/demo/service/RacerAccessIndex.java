@@ -0,0 +1,90 @@
+package com.example.demo.service;
+
+import com.example.demo.repository.ParentRacerLinkRepository;
+import com.example.demo.repository.RacerRepository;
+import org.springframework.stereotype.Service;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * parent id -> racer ids that parent can see/manage (primary owner OR co-parent link).
+ *
+ * Each entry is a sorted long[] (binary search, no boxing), loaded lazily with two
+ * indexed id-only queries and dropped whenever ownership/links change.
+ */
+@Service
+public class RacerAccessIndex {
+
+    private final RacerRepository racerRepository;
+    private final ParentRacerLinkRepository parentRacerLinkRepository;
+
+    private final ConcurrentHashMap<Long, long[]> visibleByParent = new ConcurrentHashMap<>();
+
+    // Bumped on every invalidation so a load that raced with a write is never cached
+    private final AtomicLong generation = new AtomicLong();
+
+    public RacerAccessIndex(RacerRepository racerRepository,
+                            ParentRacerLinkRepository parentRacerLinkRepository) {
+        this.racerRepository = racerRepository;
+        this.parentRacerLinkRepository = parentRacerLinkRepository;
+    }
+
+    // =========================================================
+    // Reads
+    // =========================================================
+
+    public boolean canManage(Long parentId, Long racerId) {
+        if (parentId == null || racerId == null) return false;
+        return Arrays.binarySearch(visibleRacerIds(parentId), racerId) >= 0;
+    }
+
+    /** Sorted, de-duplicated racer ids. Callers must not modify the array. */
+    public long[] visibleRacerIds(Long parentId) {
+        long[] cached = visibleByParent.get(parentId);
+        if (cached != null) return cached;
+
+        long gen = generation.get();
+        long[] loaded = load(parentId);
+        if (generation.get() == gen) {
+            long[] raced = visibleByParent.putIfAbsent(parentId, loaded);
+            if (raced != null) return raced;
+        }
+        return loaded;
+    }
+
+    // =========================================================
+    // Invalidation (after commit, so readers never see uncommitted access)
+    // =========================================================
+
+    // New racer owned by this parent, or a new co-parent link for them
+    public void parentChanged(Long parentId) {
+        if (parentId == null) return;
+        generation.incrementAndGet();
+        AfterCommit.run(() -> {
+            generation.incrementAndGet();
+            visibleByParent.remove(parentId);
+        });
+    }
+
+    // Racer deleted (or its links removed): drop every parent that could see it
+    public void racerRemoved(Long racerId) {
+        if (racerId == null) return;
+        generation.incrementAndGet();
+        AfterCommit.run(() -> {
+            generation.incrementAndGet();
+            visibleByParent.entrySet().removeIf(e -> Arrays.binarySearch(e.getValue(), racerId) >= 0);
+        });
+    }
+
+    private long[] load(Long parentId) {
+        long[] owned = racerRepository.findIdsByParentId(parentId).stream().mapToLong(Long::longValue).toArray();
+        long[] linked = parentRacerLinkRepository.findRacerIdsByParentId(parentId).stream().mapToLong(Long::longValue).toArray();
+
+        long[] all = new long[owned.length + linked.length];
+        System.arraycopy(owned, 0, all, 0, owned.length);
+        System.arraycopy(linked, 0, all, owned.length, linked.length);
+        return Arrays.stream(all).sorted().distinct().toArray();
+    }
+}
@@ -0,0 +1,250 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.RacerSearchDto;
+import com.example.demo.model.Racer;
+import com.example.demo.repository.RacerRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory trigram index for admin racer search (first/last name, nickname, car number).
+ *
+ * Every 3-char gram of each field maps to a sorted long[] of racer ids. A query of 3+ chars
+ * intersects the postings of its grams, then confirms the real substring match on the few
+ * survivors; 1–2 char queries fall back to a scan of the in-memory rows (still no DB).
+ * Seeded once at startup and kept in sync by racer create/update/delete.
+ */
+@Service
+public class RacerSearchIndex {
+
+    private static final int GRAM = 3;
+
+    // One searchable racer (only racers with a guardian are listed in admin)
+    private record Doc(RacerSearchDto row, String sortKey, String[] fields) {}
+
+    private static final Comparator<Doc> LIST_ORDER = Comparator
+            .comparing(Doc::sortKey)
+            .thenComparing(d -> d.row().id());
+
+    private final RacerRepository racerRepository;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final HashMap<Long, Doc> docs = new HashMap<>();
+    private final HashMap<String, long[]> postings = new HashMap<>();
+
+    public RacerSearchIndex(RacerRepository racerRepository) {
+        this.racerRepository = racerRepository;
+    }
+
+    // =========================================================
+    // Build
+    // =========================================================
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        List<RacerRepository.SearchRow> rows = racerRepository.findSearchRows();
+
+        HashMap<Long, Doc> nextDocs = new HashMap<>(rows.size() * 2);
+        HashMap<String, LongBuffer> building = new HashMap<>();
+
+        for (RacerRepository.SearchRow r : rows) {
+            Doc doc = toDoc(r.getId(), r.getFirstName(), r.getLastName(), r.getNickname(),
+                    r.getCarNumber(), r.getAge(), r.getDivision(), r.getParentEmail());
+            nextDocs.put(r.getId(), doc);
+            for (String g : grams(doc.fields())) {
+                building.computeIfAbsent(g, k -> new LongBuffer()).add(r.getId());
+            }
+        }
+
+        lock.writeLock().lock();
+        try {
+            docs.clear();
+            docs.putAll(nextDocs);
+            postings.clear();
+            building.forEach((g, buf) -> postings.put(g, buf.sortedDistinct()));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // =========================================================
+    // Sync (after commit)
+    // =========================================================
+
+    public void racerSaved(Racer racer) {
+        if (racer == null || racer.getId() == null) return;
+
+        Long id = racer.getId();
+        Doc doc = racer.getParent() == null ? null : toDoc(
+                id,
+                racer.getFirstName(),
+                racer.getLastName(),
+                racer.getNickname(),
+                racer.getCarNumber(),
+                racer.getAge(),
+                racer.getDivision(),
+                racer.getParent().getEmail()
+        );
+
+        AfterCommit.run(() -> {
+            lock.writeLock().lock();
+            try {
+                unindex(id);
+                if (doc != null) {
+                    docs.put(id, doc);
+                    for (String g : grams(doc.fields())) postings.put(g, insert(postings.get(g), id));
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    public void racerRemoved(Long racerId) {
+        if (racerId == null) return;
+        AfterCommit.run(() -> {
+            lock.writeLock().lock();
+            try {
+                unindex(racerId);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    // =========================================================
+    // Query
+    // =========================================================
+
+    public List<RacerSearchDto> search(String q, int limit) {
+        String needle = q == null ? "" : q.trim().toLowerCase(Locale.ROOT);
+        if (needle.isEmpty() || limit <= 0) return List.of();
+
+        List<Doc> hits = new ArrayList<>();
+
+        lock.readLock().lock();
+        try {
+            if (needle.length() < GRAM) {
+                for (Doc d : docs.values()) {
+                    if (matches(d, needle)) hits.add(d);
+                }
+            } else {
+                for (long id : candidates(needle)) {
+                    Doc d = docs.get(id);
+                    if (d != null && matches(d, needle)) hits.add(d);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        hits.sort(LIST_ORDER);
+        return hits.stream().limit(limit).map(Doc::row).toList();
+    }
+
+    // Ids whose fields contain every gram of the needle (smallest posting first)
+    private long[] candidates(String needle) {
+        List<long[]> lists = new ArrayList<>();
+        for (String g : grams(new String[] { needle })) {
+            long[] p = postings.get(g);
+            if (p == null) return new long[0];
+            lists.add(p);
+        }
+        lists.sort(Comparator.comparingInt(a -> a.length));
+
+        long[] current = lists.get(0);
+        for (int i = 1; i < lists.size() && current.length > 0; i++) {
+            long[] other = lists.get(i);
+            current = Arrays.stream(current).filter(id -> Arrays.binarySearch(other, id) >= 0).toArray();
+        }
+        return current;
+    }
+
+    // =========================================================
+    // Internals (callers hold the write lock where noted)
+    // =========================================================
+
+    // write lock held
+    private void unindex(Long id) {
+        Doc old = docs.remove(id);
+        if (old == null) return;
+        for (String g : grams(old.fields())) {
+            long[] p = remove(postings.get(g), id);
+            if (p == null || p.length == 0) postings.remove(g);
+            else postings.put(g, p);
+        }
+    }
+
+    private static Doc toDoc(Long id, String firstName, String lastName, String nickname,
+                             String carNumber, int age, String division, String parentEmail) {
+        RacerSearchDto row = new RacerSearchDto(id, firstName, lastName, carNumber, age, division, parentEmail);
+        String[] fields = {
+                lower(firstName),
+                lower(lastName),
+                lower(nickname),
+                lower(carNumber)
+        };
+        return new Doc(row, Racer.buildSortKey(lastName, firstName, carNumber), fields);
+    }
+
+    private static boolean matches(Doc d, String needle) {
+        for (String f : d.fields()) {
+            if (f.contains(needle)) return true;
+        }
+        return false;
+    }
+
+    // Grams never span two fields
+    private static Set<String> grams(String[] fields) {
+        Set<String> out = new HashSet<>();
+        for (String f : fields) {
+            for (int i = 0; i + GRAM <= f.length(); i++) out.add(f.substring(i, i + GRAM));
+        }
+        return out;
+    }
+
+    private static String lower(String s) {
+        return s == null ? "" : s.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static long[] insert(long[] sorted, long id) {
+        if (sorted == null) return new long[] { id };
+        int at = Arrays.binarySearch(sorted, id);
+        if (at >= 0) return sorted;
+        int pos = -at - 1;
+        long[] out = new long[sorted.length + 1];
+        System.arraycopy(sorted, 0, out, 0, pos);
+        out[pos] = id;
+        System.arraycopy(sorted, pos, out, pos + 1, sorted.length - pos);
+        return out;
+    }
+
+    private static long[] remove(long[] sorted, long id) {
+        if (sorted == null) return null;
+        int at = Arrays.binarySearch(sorted, id);
+        if (at < 0) return sorted;
+        long[] out = new long[sorted.length - 1];
+        System.arraycopy(sorted, 0, out, 0, at);
+        System.arraycopy(sorted, at + 1, out, at, sorted.length - at - 1);
+        return out;
+    }
+
+    // Growable primitive buffer used only while bulk-building postings
+    private static final class LongBuffer {
+        private long[] values = new long[4];
+        private int size;
+
+        void add(long v) {
+            if (size == values.length) values = Arrays.copyOf(values, size * 2);
+            values[size++] = v;
+        }
+
+        long[] sortedDistinct() {
+            return Arrays.stream(values, 0, size).sorted().distinct().toArray();
+        }
+    }
+}
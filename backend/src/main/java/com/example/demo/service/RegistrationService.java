@@ -0,0 +1,317 @@
+package com.example.demo.service;
+
+import com.example.demo.model.Registration;
+import com.example.demo.repository.RaceRepository;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Parent-side registration writes, backed by the (racer_id, race_id) unique constraint.
+ *
+ * Access comes from RacerAccessIndex (memory), race existence from the FK, and duplicates
+ * from the constraint, so registering a new pair is a single INSERT and an existing pair
+ * is that INSERT (0 rows) plus one indexed lookup. Concurrent clicks from two co-parents
+ * can no longer create two rows: the loser hits the constraint and gets the winner's row.
+ *
+ * Capped races take a seat from RaceCapacityService before inserting; when the race (or the
+ * racer's division) is full the row is inserted as WAITLISTED instead.
+ */
+@Service
+public class RegistrationService {
+
+    public enum Status {
+        CREATED, WAITLISTED, EXISTING, FORBIDDEN, RACER_NOT_FOUND, RACE_NOT_FOUND,
+        // bulk only: race already happened / race doesn't take sign-ups (nothing inserted)
+        RACE_PAST, REGISTRATION_NOT_REQUIRED
+    }
+
+    public record Outcome(Status status, Long registrationId) {}
+
+    private static final String INSERT_IF_ABSENT = """
+        insert into registration (racer_id, race_id, registered_at, status)
+        select ?, ?, ?, ?
+        where not exists (select 1 from registration where racer_id = ? and race_id = ?)
+        """;
+
+    private static final String FIND_ID =
+            "select id from registration where racer_id = ? and race_id = ?";
+
+    // Bulk matrix limits (a season is ~a dozen races; households have a few racers)
+    public static final int MAX_BULK_RACERS = 20;
+    public static final int MAX_BULK_RACES = 60;
+
+    private static final String INSERT_ROW =
+            "insert into registration (racer_id, race_id, registered_at, status) values (?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final RacerAccessIndex racerAccessIndex;
+    private final RaceRepository raceRepository;
+    private final RaceCapacityService raceCapacityService;
+    private final RosterReadModel rosterReadModel;
+    private final TransactionTemplate transactionTemplate;
+
+    public RegistrationService(JdbcTemplate jdbcTemplate,
+                               RacerAccessIndex racerAccessIndex,
+                               RaceRepository raceRepository,
+                               RaceCapacityService raceCapacityService,
+                               RosterReadModel rosterReadModel,
+                               PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.racerAccessIndex = racerAccessIndex;
+        this.raceRepository = raceRepository;
+        this.raceCapacityService = raceCapacityService;
+        this.rosterReadModel = rosterReadModel;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    // Not transactional on purpose: a constraint hit must not poison a surrounding transaction
+    public Outcome register(Long parentId, Long racerId, Long raceId) {
+        if (!racerAccessIndex.canManage(parentId, racerId)) {
+            // Only the denial path pays for the lookup; keeps the "Racer not found." contract
+            return new Outcome(racerExists(racerId) ? Status.FORBIDDEN : Status.RACER_NOT_FOUND, null);
+        }
+
+        String division = raceCapacityService.usesDivisions(raceId) ? findDivision(racerId) : null;
+        RaceCapacityService.Ticket ticket = raceCapacityService.reserve(raceId, division);
+        String status = ticket.admitted() ? Registration.REGISTERED : Registration.WAITLISTED;
+
+        KeyHolder keys = new GeneratedKeyHolder();
+        try {
+            int inserted = jdbcTemplate.update(con -> {
+                PreparedStatement ps = con.prepareStatement(INSERT_IF_ABSENT, new String[] { "id" });
+                ps.setLong(1, racerId);
+                ps.setLong(2, raceId);
+                ps.setTimestamp(3, Timestamp.valueOf(LocalDateTime.now()));
+                ps.setString(4, status);
+                ps.setLong(5, racerId);
+                ps.setLong(6, raceId);
+                return ps;
+            }, keys);
+
+            if (inserted == 1 && keys.getKey() != null) {
+                ticket.commit();
+                rosterReadModel.registrationsAdded(List.of(keys.getKey().longValue()));
+                return new Outcome(ticket.admitted() ? Status.CREATED : Status.WAITLISTED, keys.getKey().longValue());
+            }
+        } catch (DuplicateKeyException raced) {
+            // another request inserted the same pair between our check and insert
+        } catch (DataIntegrityViolationException fk) {
+            return new Outcome(Status.RACE_NOT_FOUND, null);
+        } finally {
+            ticket.cancel(); // no-op once committed; gives the seat back otherwise
+        }
+
+        Long existing = findId(racerId, raceId);
+        return existing != null
+                ? new Outcome(Status.EXISTING, existing)
+                : new Outcome(Status.RACE_NOT_FOUND, null);
+    }
+
+    private Long findId(Long racerId, Long raceId) {
+        List<Long> ids = jdbcTemplate.queryForList(FIND_ID, Long.class, racerId, raceId);
+        return ids.isEmpty() ? null : ids.get(0);
+    }
+
+    private boolean racerExists(Long racerId) {
+        return !jdbcTemplate.queryForList("select id from racer where id = ?", Long.class, racerId).isEmpty();
+    }
+
+    private String findDivision(Long racerId) {
+        List<String> divisions = jdbcTemplate.queryForList(
+                "select division from racer where id = ?", String.class, racerId);
+        return divisions.isEmpty() ? null : divisions.get(0);
+    }
+
+    // =========================================================
+    // Bulk: racer ids x race ids
+    // =========================================================
+
+    public record CellOutcome(Long racerId, Long raceId, Status status, Long registrationId) {}
+
+    private record Pair(long racerId, long raceId) {}
+
+    // Pairs that already existed, every pair after the insert, and the new pairs that went on a waitlist
+    private record Planned(Map<Pair, Long> existing, Map<Pair, Long> all, Set<Pair> waitlisted) {}
+
+    /**
+     * Registers every allowed (racer, race) cell of the matrix.
+     * Access is checked once against the parent's visible racer set, races are loaded in one
+     * query, existing pairs in one query, and all missing pairs are inserted in one JDBC batch
+     * inside a single transaction. If a concurrent request inserted one of the pairs first,
+     * the batch is rolled back and re-planned (the constraint makes that safe).
+     * Seats on capped races are reserved in race-id order and released if the batch fails.
+     *
+     * @throws IllegalArgumentException if the matrix is empty or too large
+     */
+    public List<CellOutcome> registerAll(Long parentId, Collection<Long> racerIds, Collection<Long> raceIds) {
+        List<Long> racers = distinct(racerIds);
+        List<Long> races = distinct(raceIds);
+        if (racers.isEmpty() || races.isEmpty()) {
+            throw new IllegalArgumentException("racerIds and raceIds are required.");
+        }
+        if (racers.size() > MAX_BULK_RACERS || races.size() > MAX_BULK_RACES) {
+            throw new IllegalArgumentException("Too many racers or races in one request (max "
+                    + MAX_BULK_RACERS + " x " + MAX_BULK_RACES + ").");
+        }
+
+        long[] visible = racerAccessIndex.visibleRacerIds(parentId);
+        List<Long> allowedRacers = racers.stream()
+                .filter(id -> Arrays.binarySearch(visible, id) >= 0)
+                .toList();
+
+        // Found races that can't take a sign-up get their own outcome instead of a row
+        LocalDate today = LocalDate.now();
+        Set<Long> foundRaces = new HashSet<>();
+        Map<Long, Status> closedRaces = new HashMap<>();
+        raceRepository.findAllById(races).forEach(r -> {
+            foundRaces.add(r.getId());
+            if (Boolean.FALSE.equals(r.getRequiresRegistration())) {
+                closedRaces.put(r.getId(), Status.REGISTRATION_NOT_REQUIRED);
+            } else if (r.getRaceDate() != null && r.getRaceDate().isBefore(today)) {
+                closedRaces.put(r.getId(), Status.RACE_PAST);
+            }
+        });
+        List<Long> allowedRaces = races.stream()
+                .filter(id -> foundRaces.contains(id) && !closedRaces.containsKey(id))
+                .toList();
+
+        Map<Pair, Long> before = Map.of();
+        Map<Pair, Long> after = Map.of();
+        Set<Pair> waitlisted = Set.of();
+        if (!allowedRacers.isEmpty() && !allowedRaces.isEmpty()) {
+            for (int attempt = 1; ; attempt++) {
+                try {
+                    Planned planned = insertMissing(allowedRacers, allowedRaces);
+                    before = planned.existing();
+                    after = planned.all();
+                    waitlisted = planned.waitlisted();
+                    break;
+                } catch (DuplicateKeyException raced) {
+                    if (attempt >= 3) throw raced;
+                }
+            }
+
+            Map<Pair, Long> existingPairs = before;
+            rosterReadModel.registrationsAdded(after.entrySet().stream()
+                    .filter(e -> !existingPairs.containsKey(e.getKey()))
+                    .map(Map.Entry::getValue)
+                    .toList());
+        }
+
+        List<CellOutcome> out = new ArrayList<>(racers.size() * races.size());
+        for (Long racerId : racers) {
+            boolean racerAllowed = Arrays.binarySearch(visible, racerId) >= 0;
+            for (Long raceId : races) {
+                if (!racerAllowed) {
+                    out.add(new CellOutcome(racerId, raceId, Status.FORBIDDEN, null));
+                } else if (!foundRaces.contains(raceId)) {
+                    out.add(new CellOutcome(racerId, raceId, Status.RACE_NOT_FOUND, null));
+                } else if (closedRaces.containsKey(raceId)) {
+                    out.add(new CellOutcome(racerId, raceId, closedRaces.get(raceId), null));
+                } else {
+                    Pair p = new Pair(racerId, raceId);
+                    Long existing = before.get(p);
+                    if (existing != null) {
+                        out.add(new CellOutcome(racerId, raceId, Status.EXISTING, existing));
+                    } else {
+                        Status created = waitlisted.contains(p) ? Status.WAITLISTED : Status.CREATED;
+                        out.add(new CellOutcome(racerId, raceId, created, after.get(p)));
+                    }
+                }
+            }
+        }
+        return out;
+    }
+
+    // One transaction: read existing pairs, reserve seats, batch-insert the rest, re-read ids
+    private Planned insertMissing(List<Long> racerIds, List<Long> raceIds) {
+        List<RaceCapacityService.Ticket> tickets = new ArrayList<>();
+        boolean committed = false;
+        try {
+            Planned planned = transactionTemplate.execute(status -> {
+                Map<Pair, Long> existing = findPairs(racerIds, raceIds);
+
+                // Race-id order, so two bulk requests always take race locks in the same order
+                List<Pair> missing = new ArrayList<>();
+                for (Long raceId : raceIds.stream().sorted().toList()) {
+                    for (Long racerId : racerIds) {
+                        Pair p = new Pair(racerId, raceId);
+                        if (!existing.containsKey(p)) missing.add(p);
+                    }
+                }
+                if (missing.isEmpty()) return new Planned(existing, existing, Set.of());
+
+                Map<Long, String> divisions = raceIds.stream().anyMatch(raceCapacityService::usesDivisions)
+                        ? findDivisions(racerIds)
+                        : Map.of();
+
+                Set<Pair> waitlisted = new HashSet<>();
+                for (Pair p : missing) {
+                    RaceCapacityService.Ticket ticket = raceCapacityService.reserve(p.raceId(), divisions.get(p.racerId()));
+                    tickets.add(ticket);
+                    if (!ticket.admitted()) waitlisted.add(p);
+                }
+
+                Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+                jdbcTemplate.batchUpdate(INSERT_ROW, missing, missing.size(), (ps, p) -> {
+                    ps.setLong(1, p.racerId());
+                    ps.setLong(2, p.raceId());
+                    ps.setTimestamp(3, now);
+                    ps.setString(4, waitlisted.contains(p) ? Registration.WAITLISTED : Registration.REGISTERED);
+                });
+
+                return new Planned(existing, findPairs(racerIds, raceIds), waitlisted);
+            });
+            committed = true;
+            return planned;
+        } finally {
+            for (RaceCapacityService.Ticket t : tickets) {
+                if (committed) t.commit();
+                else t.cancel();
+            }
+        }
+    }
+
+    private Map<Long, String> findDivisions(List<Long> racerIds) {
+        Map<Long, String> out = new HashMap<>();
+        jdbcTemplate.query("select id, division from racer where id in (" + placeholders(racerIds.size()) + ")",
+                rs -> {
+                    out.put(rs.getLong(1), rs.getString(2));
+                }, racerIds.toArray());
+        return out;
+    }
+
+    private Map<Pair, Long> findPairs(List<Long> racerIds, List<Long> raceIds) {
+        String sql = "select racer_id, race_id, id from registration where racer_id in ("
+                + placeholders(racerIds.size()) + ") and race_id in (" + placeholders(raceIds.size()) + ")";
+        List<Object> args = new ArrayList<>(racerIds);
+        args.addAll(raceIds);
+
+        Map<Pair, Long> out = new HashMap<>();
+        jdbcTemplate.query(sql, rs -> {
+            out.put(new Pair(rs.getLong(1), rs.getLong(2)), rs.getLong(3));
+        }, args.toArray());
+        return out;
+    }
+
+    private static String placeholders(int n) {
+        return String.join(",", Collections.nCopies(n, "?"));
+    }
+
+    private static List<Long> distinct(Collection<Long> ids) {
+        if (ids == null) return List.of();
+        return ids.stream().filter(Objects::nonNull).distinct().toList();
+    }
+}
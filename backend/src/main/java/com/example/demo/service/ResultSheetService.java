@@ -0,0 +1,138 @@
+package com.example.demo.service;
+
+import com.example.demo.audit.AuditChanges;
+import com.example.demo.model.RaceResult;
+import com.example.demo.model.Racer;
+import com.example.demo.repository.RaceRepository;
+import com.example.demo.repository.RaceResultRepository;
+import com.example.demo.repository.RacerRepository;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Replaces the whole placement sheet for one race + division in a single transaction.
+ *
+ * Statement count is fixed regardless of field size:
+ * race exists, racers (with parents), old rows, one DELETE, one batched INSERT, reload.
+ */
+@Service
+public class ResultSheetService {
+
+    public record SheetEntry(Long racerId, Integer placement) {}
+
+    private static final String INSERT_RESULT =
+            "insert into race_result (race_id, racer_id, division, placement) values (?, ?, ?, ?)";
+
+    private final RaceRepository raceRepository;
+    private final RacerRepository racerRepository;
+    private final RaceResultRepository raceResultRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final StandingsService standingsService;
+
+    public ResultSheetService(RaceRepository raceRepository,
+                              RacerRepository racerRepository,
+                              RaceResultRepository raceResultRepository,
+                              JdbcTemplate jdbcTemplate,
+                              StandingsService standingsService) {
+        this.raceRepository = raceRepository;
+        this.racerRepository = racerRepository;
+        this.raceResultRepository = raceResultRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.standingsService = standingsService;
+    }
+
+    /**
+     * @throws IllegalArgumentException with a user-facing message when the sheet is invalid
+     */
+    @Transactional
+    public List<RaceResult> replaceSheet(Long raceId, String divisionRaw, List<SheetEntry> entriesRaw) {
+        String division = divisionRaw == null ? "" : divisionRaw.trim();
+        if (raceId == null || division.isBlank()) {
+            throw new IllegalArgumentException("raceId and division are required.");
+        }
+        List<SheetEntry> entries = entriesRaw == null ? List.of() : entriesRaw;
+
+        // ✅ Validate in memory before touching the DB
+        Set<Long> racerIds = new HashSet<>();
+        Set<Integer> placements = new HashSet<>();
+        for (SheetEntry e : entries) {
+            if (e == null || e.racerId() == null || e.placement() == null) {
+                throw new IllegalArgumentException("Each row needs racerId and placement.");
+            }
+            if (e.placement() < 1) {
+                throw new IllegalArgumentException("placement must be >= 1.");
+            }
+            if (!racerIds.add(e.racerId())) {
+                throw new IllegalArgumentException("Racer listed more than once: " + e.racerId());
+            }
+            if (!placements.add(e.placement())) {
+                throw new IllegalArgumentException("Placement used more than once: " + e.placement());
+            }
+        }
+
+        if (!raceRepository.existsById(raceId)) {
+            throw new IllegalArgumentException("Race not found.");
+        }
+
+        if (!racerIds.isEmpty()) {
+            Map<Long, Racer> racers = racerRepository.findAllByIdWithParent(racerIds).stream()
+                    .collect(Collectors.toMap(Racer::getId, Function.identity()));
+
+            for (Long id : racerIds) {
+                Racer r = racers.get(id);
+                if (r == null) throw new IllegalArgumentException("Racer not found: " + id);
+                // Your rule: racers must have a parent
+                if (r.getParent() == null) {
+                    throw new IllegalArgumentException("Racer must be associated with a parent: " + id);
+                }
+            }
+        }
+
+        List<RaceResult> previous = raceResultRepository.findByRaceIdAndDivisionOrderByPlacementAsc(raceId, division);
+        raceResultRepository.deleteAllInBatch(previous);
+
+        // IDENTITY ids disable Hibernate insert batching, so batch at the JDBC level instead
+        jdbcTemplate.batchUpdate(INSERT_RESULT, entries, Math.max(entries.size(), 1), (ps, e) -> {
+            ps.setLong(1, raceId);
+            ps.setLong(2, e.racerId());
+            ps.setString(3, division);
+            ps.setInt(4, e.placement());
+        });
+
+        List<RaceResult> saved = raceResultRepository.findByRaceIdAndDivisionOrderByPlacementAsc(raceId, division);
+
+        recordSheetChange(raceId, division, previous, saved);
+
+        previous.forEach(standingsService::resultDeleted);
+        saved.forEach(standingsService::resultSaved);
+        return saved;
+    }
+
+    // ✅ The sheet bypasses Hibernate events (bulk delete + JDBC insert), so hand the audit
+    // the placement diff directly: racer -> [old, new] for rows that actually changed.
+    private static void recordSheetChange(Long raceId, String division,
+                                          List<RaceResult> previous, List<RaceResult> saved) {
+        AuditChanges changes = AuditChanges.current();
+        if (changes == null) return;
+
+        Map<Long, Integer> before = new HashMap<>();
+        for (RaceResult rr : previous) before.put(rr.getRacer().getId(), rr.getPlacement());
+
+        Map<String, Object> fields = AuditChanges.fields();
+        fields.put("division", division);
+        for (RaceResult rr : saved) {
+            Integer old = before.remove(rr.getRacer().getId());
+            if (old == null || old != rr.getPlacement()) {
+                fields.put("racer:" + rr.getRacer().getId(), new Object[] { old, rr.getPlacement() });
+            }
+        }
+        before.forEach((racerId, old) -> fields.put("racer:" + racerId, new Object[] { old, null }));
+
+        if (fields.size() > 1) changes.add("RaceResultSheet", raceId, "U", fields);
+    }
+}
@@ -0,0 +1,270 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.AdminRegistrationRow;
+import com.example.demo.model.Race;
+import com.example.demo.model.Racer;
+import com.example.demo.repository.RegistrationRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * Denormalized admin roster: one flat row per registration (race, racer, guardian email),
+ * grouped by race and kept pre-sorted in display order.
+ *
+ * Reads (check-in staff refresh these constantly) return an immutable snapshot with no DB
+ * work. Writers run after commit: registration create/delete, racer edits/deletes and race
+ * edits patch only the affected race rosters and republish. Seeded once at startup.
+ */
+@Service
+public class RosterReadModel {
+
+    // Full roster: race date desc, race name, then each race's rows by division/last/first
+    private static final Comparator<AdminRegistrationRow> RACE_ORDER = Comparator
+            .comparing(AdminRegistrationRow::raceDate, Comparator.nullsLast(Comparator.reverseOrder()))
+            .thenComparing(r -> lower(r.raceName()), Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(AdminRegistrationRow::raceId, Comparator.nullsLast(Comparator.naturalOrder()));
+
+    private static final Comparator<AdminRegistrationRow> DIVISION_ORDER = Comparator
+            .comparing((AdminRegistrationRow r) -> lower(r.racerDivision()), Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(r -> Objects.toString(lower(r.racerLastName()), ""))
+            .thenComparing(r -> Objects.toString(lower(r.racerFirstName()), ""))
+            .thenComparing(AdminRegistrationRow::registrationId);
+
+    // Single-race roster: last, first
+    private static final Comparator<AdminRegistrationRow> NAME_ORDER = Comparator
+            .comparing((AdminRegistrationRow r) -> lower(r.racerLastName()), Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(r -> lower(r.racerFirstName()), Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(AdminRegistrationRow::registrationId);
+
+    // Published per-race snapshot
+    private record RaceRoster(AdminRegistrationRow head, List<AdminRegistrationRow> byDivision,
+                              List<AdminRegistrationRow> byName) {}
+
+    private final RegistrationRepository registrationRepository;
+
+    // Writer-owned state (guarded by this)
+    private final HashMap<Long, AdminRegistrationRow> rowsById = new HashMap<>();
+    private final HashMap<Long, Set<Long>> idsByRace = new HashMap<>();
+    private final HashMap<Long, Set<Long>> idsByRacer = new HashMap<>();
+    private final HashMap<Long, RaceRoster> building = new HashMap<>();
+
+    // Reader-visible snapshots
+    private volatile Map<Long, RaceRoster> rosters = Map.of();
+    private volatile List<AdminRegistrationRow> all = List.of();
+
+    public RosterReadModel(RegistrationRepository registrationRepository) {
+        this.registrationRepository = registrationRepository;
+    }
+
+    // =========================================================
+    // Query
+    // =========================================================
+
+    public List<AdminRegistrationRow> all() {
+        return all;
+    }
+
+    public List<AdminRegistrationRow> byRace(Long raceId) {
+        RaceRoster roster = rosters.get(raceId);
+        return roster == null ? List.of() : roster.byName();
+    }
+
+    // =========================================================
+    // Build
+    // =========================================================
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        rowsById.clear();
+        idsByRace.clear();
+        idsByRacer.clear();
+        building.clear();
+
+        for (AdminRegistrationRow row : registrationRepository.findAdminRows()) put(row);
+        for (Long raceId : idsByRace.keySet()) building.put(raceId, sortRace(raceId));
+        publish();
+    }
+
+    // =========================================================
+    // Sync (after commit)
+    // =========================================================
+
+    // New registrations: rows are read back under the lock so a concurrent delete can't be undone
+    public void registrationsAdded(Collection<Long> registrationIds) {
+        if (registrationIds == null || registrationIds.isEmpty()) return;
+        List<Long> ids = List.copyOf(registrationIds);
+        AfterCommit.run(() -> {
+            synchronized (this) {
+                Set<Long> touched = new HashSet<>();
+                for (AdminRegistrationRow row : registrationRepository.findAdminRowsByIds(ids)) {
+                    remove(row.registrationId(), touched);
+                    put(row);
+                    touched.add(row.raceId());
+                }
+                republish(touched);
+            }
+        });
+    }
+
+    public void registrationRemoved(Long registrationId) {
+        if (registrationId == null) return;
+        AfterCommit.run(() -> {
+            synchronized (this) {
+                Set<Long> touched = new HashSet<>();
+                remove(registrationId, touched);
+                republish(touched);
+            }
+        });
+    }
+
+    // Statuses changed in bulk (waitlist promotion): reload that race's rows
+    public void raceRegistrationsChanged(Long raceId) {
+        if (raceId == null) return;
+        AfterCommit.run(() -> reloadRace(raceId));
+    }
+
+    // ✅ Immediate (not deferred): for callers that have already committed their own
+    // transaction, e.g. capacity reconcile running inside another transaction's afterCommit,
+    // where a newly registered synchronization would never fire
+    public synchronized void reloadRace(Long raceId) {
+        if (raceId == null) return;
+        Set<Long> touched = new HashSet<>();
+        touched.add(raceId);
+        for (Long id : new ArrayList<>(idsByRace.getOrDefault(raceId, Set.of()))) remove(id, touched);
+        for (AdminRegistrationRow row : registrationRepository.findAdminRowsByRaceId(raceId)) put(row);
+        republish(touched);
+    }
+
+    public void racerSaved(Racer racer) {
+        if (racer == null || racer.getId() == null) return;
+        Long racerId = racer.getId();
+        String firstName = racer.getFirstName();
+        String lastName = racer.getLastName();
+        int age = racer.getAge();
+        String division = racer.getDivision();
+        String carNumber = racer.getCarNumber();
+        Long parentId = racer.getParent() != null ? racer.getParent().getId() : null;
+        String parentEmail = racer.getParent() != null ? racer.getParent().getEmail() : null;
+
+        AfterCommit.run(() -> {
+            synchronized (this) {
+                Set<Long> touched = new HashSet<>();
+                for (Long id : idsByRacer.getOrDefault(racerId, Set.of())) {
+                    AdminRegistrationRow r = rowsById.get(id);
+                    rowsById.put(id, new AdminRegistrationRow(
+                            r.registrationId(), r.raceId(), r.raceName(), r.raceDate(),
+                            racerId, firstName, lastName, age, division, carNumber,
+                            parentId, parentEmail, r.status()));
+                    touched.add(r.raceId());
+                }
+                republish(touched);
+            }
+        });
+    }
+
+    public void racerRemoved(Long racerId) {
+        if (racerId == null) return;
+        AfterCommit.run(() -> {
+            synchronized (this) {
+                Set<Long> touched = new HashSet<>();
+                for (Long id : new ArrayList<>(idsByRacer.getOrDefault(racerId, Set.of()))) remove(id, touched);
+                republish(touched);
+            }
+        });
+    }
+
+    public void raceSaved(Race race) {
+        if (race == null || race.getId() == null) return;
+        Long raceId = race.getId();
+        String raceName = race.getRaceName();
+        LocalDate raceDate = race.getRaceDate();
+
+        AfterCommit.run(() -> {
+            synchronized (this) {
+                Set<Long> ids = idsByRace.get(raceId);
+                if (ids == null) return;
+                for (Long id : ids) {
+                    AdminRegistrationRow r = rowsById.get(id);
+                    rowsById.put(id, new AdminRegistrationRow(
+                            r.registrationId(), raceId, raceName, raceDate,
+                            r.racerId(), r.racerFirstName(), r.racerLastName(), r.racerAge(),
+                            r.racerDivision(), r.carNumber(), r.parentId(), r.parentEmail(), r.status()));
+                }
+                republish(Set.of(raceId));
+            }
+        });
+    }
+
+    public void raceRemoved(Long raceId) {
+        if (raceId == null) return;
+        AfterCommit.run(() -> {
+            synchronized (this) {
+                Set<Long> touched = new HashSet<>();
+                for (Long id : new ArrayList<>(idsByRace.getOrDefault(raceId, Set.of()))) remove(id, touched);
+                republish(touched);
+            }
+        });
+    }
+
+    // =========================================================
+    // Internals (callers hold the monitor)
+    // =========================================================
+
+    private void put(AdminRegistrationRow row) {
+        rowsById.put(row.registrationId(), row);
+        if (row.raceId() != null) idsByRace.computeIfAbsent(row.raceId(), k -> new HashSet<>()).add(row.registrationId());
+        if (row.racerId() != null) idsByRacer.computeIfAbsent(row.racerId(), k -> new HashSet<>()).add(row.registrationId());
+    }
+
+    private void remove(Long registrationId, Set<Long> touched) {
+        AdminRegistrationRow old = rowsById.remove(registrationId);
+        if (old == null) return;
+        touched.add(old.raceId());
+        detach(idsByRace, old.raceId(), registrationId);
+        detach(idsByRacer, old.racerId(), registrationId);
+    }
+
+    private static void detach(Map<Long, Set<Long>> index, Long key, Long registrationId) {
+        if (key == null) return;
+        Set<Long> ids = index.get(key);
+        if (ids == null) return;
+        ids.remove(registrationId);
+        if (ids.isEmpty()) index.remove(key);
+    }
+
+    // Re-sort only the touched races, then swap in new snapshots
+    private void republish(Set<Long> raceIds) {
+        if (raceIds.isEmpty()) return;
+        for (Long raceId : raceIds) {
+            if (idsByRace.containsKey(raceId)) building.put(raceId, sortRace(raceId));
+            else building.remove(raceId);
+        }
+        publish();
+    }
+
+    private RaceRoster sortRace(Long raceId) {
+        List<AdminRegistrationRow> rows = idsByRace.get(raceId).stream().map(rowsById::get).toList();
+        List<AdminRegistrationRow> byDivision = rows.stream().sorted(DIVISION_ORDER).toList();
+        List<AdminRegistrationRow> byName = rows.stream().sorted(NAME_ORDER).toList();
+        return new RaceRoster(byDivision.get(0), byDivision, byName);
+    }
+
+    private void publish() {
+        List<RaceRoster> ordered = new ArrayList<>(building.values());
+        ordered.sort(Comparator.comparing(RaceRoster::head, RACE_ORDER));
+
+        List<AdminRegistrationRow> flat = new ArrayList<>(rowsById.size());
+        for (RaceRoster roster : ordered) flat.addAll(roster.byDivision());
+
+        rosters = Map.copyOf(building);
+        all = Collections.unmodifiableList(flat);
+    }
+
+    private static String lower(String s) {
+        return s == null ? null : s.toLowerCase(Locale.ROOT);
+    }
+}
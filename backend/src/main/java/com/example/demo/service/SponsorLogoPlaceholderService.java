@@ -0,0 +1,202 @@
+package com.example.demo.service;
+
+import com.example.demo.model.Sponsor;
+import com.example.demo.repository.SponsorRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.ImageIO;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetAddress;
+import java.net.URI;
+import java.net.UnknownHostException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.*;
+
+/**
+ * Placeholders for sponsor logos. Logos are entered as URLs (not uploaded), so after a
+ * sponsor is saved the logo is fetched off-request, decoded once, and its placeholder is
+ * written back through a completion callback. Only absolute http(s) URLs are fetched;
+ * site-relative paths are served by the frontend and keep no placeholder.
+ *
+ * Logo URLs are user-entered, so the fetch is guarded against reaching internal services:
+ * default ports only, every resolved address must be public (no loopback, link-local such as
+ * cloud metadata, private or unique-local ranges), and redirects are not followed.
+ */
+@Service
+public class SponsorLogoPlaceholderService {
+
+    private static final long MAX_LOGO_BYTES = 5L * 1024 * 1024;
+    private static final Duration FETCH_TIMEOUT = Duration.ofSeconds(10);
+
+    private final SponsorRepository sponsorRepository;
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(FETCH_TIMEOUT)
+            .followRedirects(HttpClient.Redirect.NEVER)
+            .build();
+
+    private final ThreadPoolExecutor pool = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(16),
+            r -> {
+                Thread t = new Thread(r, "sponsor-placeholders");
+                t.setDaemon(true);
+                return t;
+            },
+            new ThreadPoolExecutor.AbortPolicy());
+
+    public SponsorLogoPlaceholderService(SponsorRepository sponsorRepository) {
+        this.sponsorRepository = sponsorRepository;
+    }
+
+    // Sponsors saved before placeholders existed
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        sponsorRepository.findByLogoPlaceholderIsNullAndLogoUrlIsNotNull().forEach(this::logoChanged);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    // =========================================================
+    // Sync (after commit)
+    // =========================================================
+
+    public void logoChanged(Sponsor sponsor) {
+        if (sponsor == null || sponsor.getId() == null || !isFetchable(sponsor.getLogoUrl())) return;
+        Long id = sponsor.getId();
+        String logoUrl = sponsor.getLogoUrl();
+
+        AfterCommit.run(() -> {
+            try {
+                CompletableFuture
+                        .supplyAsync(() -> compute(logoUrl), pool)
+                        .whenComplete((placeholder, ex) -> {
+                            if (ex != null) {
+                                System.err.println("Sponsor " + id + ": logo placeholder failed: " + ex.getMessage());
+                            } else if (placeholder != null) {
+                                sponsorRepository.updateLogoPlaceholder(id, logoUrl, placeholder);
+                            }
+                        });
+            } catch (RejectedExecutionException busy) {
+                System.err.println("Sponsor " + id + ": placeholder queue full, skipped.");
+            }
+        });
+    }
+
+    // =========================================================
+    // Fetch + decode (worker thread)
+    // =========================================================
+
+    private String compute(String logoUrl) {
+        URI uri = URI.create(logoUrl.trim());
+        if (!isPublicHost(uri)) {
+            System.err.println("Sponsor logo " + logoUrl + ": not a public address, skipped.");
+            return null;
+        }
+
+        HttpRequest request = HttpRequest.newBuilder(uri)
+                .timeout(FETCH_TIMEOUT)
+                .GET()
+                .build();
+        try {
+            HttpResponse<InputStream> response = httpClient.send(request, HttpResponse.BodyHandlers.ofInputStream());
+            try (InputStream body = response.body()) {
+                if (response.statusCode() != 200) return null;
+
+                // Bounded read: a huge or endless response can't exhaust memory
+                try (ImageInputStream in = ImageIO.createImageInputStream(new BoundedInputStream(body, MAX_LOGO_BYTES))) {
+                    BufferedImage img = PhotoVariantService.decode(in, PhotoVariantService.THUMB_EDGE);
+                    return img == null ? null : ImagePlaceholders.dataUri(img);
+                }
+            }
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (IOException ex) {
+            throw new CompletionException(ex);
+        }
+    }
+
+    private static boolean isFetchable(String url) {
+        if (url == null) return false;
+        String lower = url.trim().toLowerCase();
+        return lower.startsWith("https://") || lower.startsWith("http://");
+    }
+
+    // Resolves the host and accepts it only if every address is publicly routable
+    static boolean isPublicHost(URI uri) {
+        String host = uri.getHost();
+        int port = uri.getPort();
+        if (host == null || uri.getUserInfo() != null) return false;
+        if (port != -1 && port != 80 && port != 443) return false;
+        try {
+            InetAddress[] addresses = InetAddress.getAllByName(host);
+            if (addresses.length == 0) return false;
+            for (InetAddress a : addresses) {
+                if (!isPublicAddress(a)) return false;
+            }
+            return true;
+        } catch (UnknownHostException ex) {
+            return false;
+        }
+    }
+
+    static boolean isPublicAddress(InetAddress a) {
+        if (a.isAnyLocalAddress() || a.isLoopbackAddress() || a.isLinkLocalAddress()
+                || a.isSiteLocalAddress() || a.isMulticastAddress()) {
+            return false;
+        }
+        byte[] b = a.getAddress();
+        if (b.length == 4) {
+            int first = b[0] & 0xff;
+            int second = b[1] & 0xff;
+            if (first == 0) return false;                                   // "this" network
+            if (first == 100 && second >= 64 && second <= 127) return false; // carrier-grade NAT
+            if (first == 192 && second == 0 && (b[2] & 0xff) == 0) return false; // IETF protocol
+            if (first >= 224) return false;                                 // multicast/reserved
+            return true;
+        }
+        // IPv6 unique local fc00::/7 (site-local fec0::/10 is covered above)
+        return (b[0] & 0xfe) != 0xfc;
+    }
+
+    // Fails once more than max bytes have been read
+    private static final class BoundedInputStream extends java.io.FilterInputStream {
+        private long remaining;
+
+        BoundedInputStream(InputStream in, long max) {
+            super(in);
+            this.remaining = max;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) consume(1);
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buf, int off, int len) throws IOException {
+            int n = super.read(buf, off, len);
+            if (n > 0) consume(n);
+            return n;
+        }
+
+        private void consume(long n) throws IOException {
+            remaining -= n;
+            if (remaining < 0) throw new IOException("Logo is larger than " + MAX_LOGO_BYTES + " bytes");
+        }
+    }
+}
@@ -0,0 +1,230 @@
+package com.example.demo.service;
+
+import com.example.demo.model.RaceResult;
+import com.example.demo.model.Racer;
+import com.example.demo.repository.RaceResultRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+
+/**
+ * Championship standings kept in memory and updated incrementally as results are
+ * created/deleted, so GET /api/standings is a lookup of an already-sorted table.
+ *
+ * Scoring and tie-breakers mirror frontend/src/utils/standingUtils.js:
+ * 1st = 13, 2nd = 10, 3rd = 8, anything else = 1; then wins, seconds, thirds, races, name.
+ */
+@Service
+public class StandingsService {
+
+    // ✅ Canonical division order (MUST match frontend DIVISIONS)
+    public static final List<String> DIVISIONS = List.of(
+            "3 Year Old Division",
+            "4 Year Old Division",
+            "5 Year Old Division",
+            "Snack Pack Division",
+            "Lil Stingers"
+    );
+
+    public record StandingRow(
+            Long racerId,
+            String name,
+            String division,
+            int points,
+            int races,
+            int wins,
+            int seconds,
+            int thirds
+    ) {}
+
+    private static final Comparator<StandingRow> STANDINGS_ORDER = Comparator
+            .comparingInt(StandingRow::points).reversed()
+            .thenComparing(Comparator.comparingInt(StandingRow::wins).reversed())
+            .thenComparing(Comparator.comparingInt(StandingRow::seconds).reversed())
+            .thenComparing(Comparator.comparingInt(StandingRow::thirds).reversed())
+            .thenComparing(Comparator.comparingInt(StandingRow::races).reversed())
+            .thenComparing(r -> r.name() == null ? "" : r.name(), String.CASE_INSENSITIVE_ORDER);
+
+    // Mutable per-racer totals (only touched while holding the service lock)
+    private static final class Tally {
+        String name;
+        int points, races, wins, seconds, thirds;
+
+        StandingRow toRow(Long racerId, String division) {
+            return new StandingRow(racerId, name, division, points, races, wins, seconds, thirds);
+        }
+    }
+
+    private final RaceResultRepository raceResultRepository;
+
+    // division -> racerId -> running totals
+    private final Map<String, Map<Long, Tally>> tallies = new HashMap<>();
+
+    // Read side: immutable, pre-sorted tables swapped in on every write
+    private volatile Map<String, List<StandingRow>> snapshot = Map.of();
+
+    public StandingsService(RaceResultRepository raceResultRepository) {
+        this.raceResultRepository = raceResultRepository;
+    }
+
+    // =========================================================
+    // Reads
+    // =========================================================
+
+    public Map<String, List<StandingRow>> getStandings() {
+        return snapshot;
+    }
+
+    public List<StandingRow> getDivision(String division) {
+        return snapshot.getOrDefault(normalizeDivision(division), List.of());
+    }
+
+    // =========================================================
+    // Writes (applied after the DB transaction commits)
+    // =========================================================
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        tallies.clear();
+        for (RaceResultRepository.PlacementView p : raceResultRepository.findAllPlacements()) {
+            apply(p.getRacerId(), fullName(p.getFirstName(), p.getLastName()), p.getDivision(), p.getPlacement(), 1);
+        }
+
+        Map<String, List<StandingRow>> next = new LinkedHashMap<>();
+        for (String division : orderedDivisions()) {
+            next.put(division, sortedRows(division));
+        }
+        snapshot = Collections.unmodifiableMap(next);
+    }
+
+    public void resultSaved(RaceResult rr) {
+        Entry e = Entry.of(rr);
+        if (e != null) AfterCommit.run(() -> applyAndPublish(e, 1));
+    }
+
+    public void resultDeleted(RaceResult rr) {
+        Entry e = Entry.of(rr);
+        if (e != null) AfterCommit.run(() -> applyAndPublish(e, -1));
+    }
+
+    public void racerRemoved(Long racerId) {
+        if (racerId == null) return;
+        AfterCommit.run(() -> {
+            synchronized (this) {
+                List<String> touched = new ArrayList<>();
+                tallies.forEach((division, byRacer) -> {
+                    if (byRacer.remove(racerId) != null) touched.add(division);
+                });
+                touched.forEach(this::publishDivision);
+            }
+        });
+    }
+
+    public void racerRenamed(Racer racer) {
+        if (racer == null || racer.getId() == null) return;
+        String name = fullName(racer.getFirstName(), racer.getLastName());
+        AfterCommit.run(() -> {
+            synchronized (this) {
+                List<String> touched = new ArrayList<>();
+                tallies.forEach((division, byRacer) -> {
+                    Tally t = byRacer.get(racer.getId());
+                    if (t != null && !Objects.equals(t.name, name)) {
+                        t.name = name;
+                        touched.add(division);
+                    }
+                });
+                touched.forEach(this::publishDivision);
+            }
+        });
+    }
+
+    // =========================================================
+    // Internals
+    // =========================================================
+
+    private record Entry(Long racerId, String name, String division, int placement) {
+        static Entry of(RaceResult rr) {
+            if (rr == null || rr.getRacer() == null) return null;
+            Racer r = rr.getRacer();
+            return new Entry(r.getId(), fullName(r.getFirstName(), r.getLastName()), rr.getDivision(), rr.getPlacement());
+        }
+    }
+
+    private synchronized void applyAndPublish(Entry e, int sign) {
+        String division = apply(e.racerId(), e.name(), e.division(), e.placement(), sign);
+        if (division != null) publishDivision(division);
+    }
+
+    private String apply(Long racerId, String name, String rawDivision, int placement, int sign) {
+        String division = normalizeDivision(rawDivision);
+        if (racerId == null || division.isBlank()) return null;
+
+        Map<Long, Tally> byRacer = tallies.computeIfAbsent(division, d -> new HashMap<>());
+        Tally t = byRacer.get(racerId);
+        if (t == null) {
+            if (sign < 0) return null; // nothing to take away
+            t = new Tally();
+            byRacer.put(racerId, t);
+        }
+
+        t.name = name;
+        t.points += sign * pointsFor(placement);
+        t.races += sign;
+        if (placement == 1) t.wins += sign;
+        if (placement == 2) t.seconds += sign;
+        if (placement == 3) t.thirds += sign;
+
+        if (t.races <= 0) byRacer.remove(racerId);
+        return division;
+    }
+
+    private void publishDivision(String division) {
+        Map<String, List<StandingRow>> next = new LinkedHashMap<>();
+        for (String d : orderedDivisions()) {
+            next.put(d, d.equals(division) ? sortedRows(d) : snapshot.getOrDefault(d, List.of()));
+        }
+        snapshot = Collections.unmodifiableMap(next);
+    }
+
+    private List<StandingRow> sortedRows(String division) {
+        Map<Long, Tally> byRacer = tallies.getOrDefault(division, Map.of());
+        List<StandingRow> rows = new ArrayList<>(byRacer.size());
+        byRacer.forEach((racerId, t) -> rows.add(t.toRow(racerId, division)));
+        rows.sort(STANDINGS_ORDER);
+        return List.copyOf(rows);
+    }
+
+    // Known divisions first (even if empty), then any unexpected ones alphabetically
+    private List<String> orderedDivisions() {
+        List<String> out = new ArrayList<>(DIVISIONS);
+        tallies.keySet().stream()
+                .filter(d -> !DIVISIONS.contains(d))
+                .sorted(String.CASE_INSENSITIVE_ORDER)
+                .forEach(out::add);
+        return out;
+    }
+
+    private static int pointsFor(int placement) {
+        return switch (placement) {
+            case 1 -> 13;
+            case 2 -> 10;
+            case 3 -> 8;
+            default -> 1;
+        };
+    }
+
+    // ✅ Backward-compatible normalization (same as frontend)
+    private static String normalizeDivision(String raw) {
+        String d = raw == null ? "" : raw.trim();
+        if (d.equalsIgnoreCase("lil stingers division") || d.equalsIgnoreCase("lil stingers")) {
+            return "Lil Stingers";
+        }
+        return d;
+    }
+
+    private static String fullName(String first, String last) {
+        return ((first == null ? "" : first) + " " + (last == null ? "" : last)).trim();
+    }
+}
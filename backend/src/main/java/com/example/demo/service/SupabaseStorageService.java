@@ -1,55 +1,227 @@
 package com.example.demo.service;
 
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.*;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
 import java.util.UUID;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * Uploads images to Supabase Storage.
+ *
+ * The upload is streamed: the body is read from the multipart part (a temp file on disk
+ * above spring.servlet.multipart.file-size-threshold, 0B by default) and handed to the
+ * HTTP client in small chunks as the socket drains, so memory per upload stays bounded
+ * no matter how large the photo is. Content-Length is sent up front (no chunked encoding).
+ *
+ * One shared client (pooled keep-alive connections, HTTP/2 where the server offers it,
+ * HTTP/1.1 otherwise) with a connect timeout and a per-attempt timeout. At most
+ * maxConcurrent uploads are on the wire at once; callers wait a bounded time for a slot,
+ * so a slow storage backend can't pin every request thread. Transient failures (I/O
+ * errors, timeouts, 429, 5xx) are retried with jittered exponential backoff. Retrying a
+ * POST is safe here: a retry of an upload that actually landed gets "Duplicate" back,
+ * which is treated as success.
+ */
 @Service
 public class SupabaseStorageService {
 
-    @Value("${supabase.project-url}")
-    private String projectUrl;   // e.g. https://mdlvklscpycfzxnzjvza.supabase.co
+    // Timeouts, concurrency and retry policy
+    public record Limits(Duration connectTimeout,
+                         Duration uploadTimeout,
+                         int maxConcurrent,
+                         Duration slotWait,
+                         int maxAttempts,
+                         Duration backoffBase) {
 
-    @Value("${supabase.service-key}")
-    private String serviceKey;   // SERVICE_ROLE key (env var, never commit!)
+        public static final Limits DEFAULTS = new Limits(
+                Duration.ofSeconds(10), Duration.ofMinutes(2), 4, Duration.ofSeconds(30), 3, Duration.ofMillis(250));
+    }
+
+    private static final Duration MAX_BACKOFF = Duration.ofSeconds(5);
+
+    private final String projectUrl;   // e.g. https://mdlvklscpycfzxnzjvza.supabase.co
+    private final String serviceKey;   // SERVICE_ROLE key (env var, never commit!)
+    private final String bucketName;   // "photos"
+
+    private final Limits limits;
+    private final HttpClient httpClient;
+    private final Semaphore slots;
+
+    @Autowired
+    public SupabaseStorageService(@Value("${supabase.project-url}") String projectUrl,
+                                  @Value("${supabase.service-key}") String serviceKey,
+                                  @Value("${supabase.bucket-name:photos}") String bucketName,
+                                  @Value("${supabase.max-concurrent-uploads:4}") int maxConcurrent,
+                                  @Value("${supabase.upload-max-attempts:3}") int maxAttempts) {
+        this(projectUrl, serviceKey, bucketName, new Limits(
+                Limits.DEFAULTS.connectTimeout(), Limits.DEFAULTS.uploadTimeout(), maxConcurrent,
+                Limits.DEFAULTS.slotWait(), maxAttempts, Limits.DEFAULTS.backoffBase()));
+    }
 
-    @Value("${supabase.bucket-name:photos}")
-    private String bucketName;   // "photos"
+    public SupabaseStorageService(String projectUrl, String serviceKey, String bucketName) {
+        this(projectUrl, serviceKey, bucketName, Limits.DEFAULTS);
+    }
 
-    private final RestTemplate restTemplate = new RestTemplate();
+    public SupabaseStorageService(String projectUrl, String serviceKey, String bucketName, Limits limits) {
+        if (limits.maxConcurrent() < 1 || limits.maxAttempts() < 1) {
+            throw new IllegalArgumentException("maxConcurrent and maxAttempts must be at least 1");
+        }
+        this.projectUrl = projectUrl;
+        this.serviceKey = serviceKey;
+        this.bucketName = bucketName;
+        this.limits = limits;
+        this.slots = new Semaphore(limits.maxConcurrent(), true);
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(limits.connectTimeout())
+                .build();
+    }
 
     public String uploadImage(MultipartFile file) throws IOException {
         // Generate unique filename
-        String original = file.getOriginalFilename();
-        String ext = "";
-        if (original != null && original.contains(".")) {
-            ext = original.substring(original.lastIndexOf("."));
-        }
-        String fileName = UUID.randomUUID() + ext;
+        return uploadImage(file, UUID.randomUUID() + extension(file.getOriginalFilename()));
+    }
+
+    // ✅ Caller-chosen object name (e.g. content-addressed); an existing object is kept as-is
+    public String uploadImage(MultipartFile file, String fileName) throws IOException {
+        String contentType = file.getContentType() != null ? file.getContentType() : "application/octet-stream";
+        return put(fileName, contentType, streamingBody(file));
+    }
+
+    // ✅ Small generated objects (e.g. resized photo variants) that are already in memory
+    public String uploadBytes(String fileName, byte[] data, String contentType) throws IOException {
+        return put(fileName, contentType, HttpRequest.BodyPublishers.ofByteArray(data));
+    }
 
+    private String put(String fileName, String contentType, HttpRequest.BodyPublisher body) throws IOException {
         // Supabase Storage upload URL (no /public here)
         String uploadUrl = projectUrl + "/storage/v1/object/" + bucketName + "/" + fileName;
 
-        HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.parseMediaType(file.getContentType()));
-        headers.set("apikey", serviceKey);
-        headers.setBearerAuth(serviceKey);
+        // Body publishers are re-subscribable (the part is re-opened), so one request serves every attempt
+        HttpRequest request = HttpRequest.newBuilder(URI.create(uploadUrl))
+                .timeout(limits.uploadTimeout())
+                .header("Content-Type", contentType)
+                .header("apikey", serviceKey)
+                .header("Authorization", "Bearer " + serviceKey)
+                .POST(body)
+                .build();
 
-        HttpEntity<byte[]> entity = new HttpEntity<>(file.getBytes(), headers);
+        for (int attempt = 1; ; attempt++) {
+            HttpResponse<String> response;
+            try {
+                response = send(request);
+            } catch (StorageBusyException | InterruptedIOException ex) {
+                throw ex;
+            } catch (IOException ex) {   // connect failure, reset, HttpTimeoutException
+                if (attempt >= limits.maxAttempts()) throw ex;
+                System.err.println("Storage upload " + fileName + " attempt " + attempt + " failed: " + ex.getMessage());
+                backoff(attempt);
+                continue;
+            }
 
-        ResponseEntity<String> response =
-                restTemplate.exchange(uploadUrl, HttpMethod.POST, entity, String.class);
+            // Same name already stored: for content-addressed names the existing object has the
+            // same bytes, and for a retry it is our own earlier attempt (409, or 400 + "Duplicate")
+            if (isDuplicate(response)) {
+                return publicUrl(fileName);
+            }
+            int status = response.statusCode();
+            if (status >= 200 && status < 300) {
+                return publicUrl(fileName);
+            }
+            if (!isRetryable(status) || attempt >= limits.maxAttempts()) {
+                throw new RuntimeException("Failed to upload to Supabase: " + status);
+            }
+            System.err.println("Storage upload " + fileName + " attempt " + attempt + " got " + status + ", retrying.");
+            backoff(attempt);
+        }
+    }
 
-        if (!response.getStatusCode().is2xxSuccessful()) {
-            throw new RuntimeException("Failed to upload to Supabase: " + response.getStatusCode());
+    // One attempt, holding a concurrency slot only while on the wire
+    private HttpResponse<String> send(HttpRequest request) throws IOException {
+        boolean acquired;
+        try {
+            acquired = slots.tryAcquire(limits.slotWait().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted waiting for a storage upload slot");
+        }
+        if (!acquired) {
+            // Not retried: waiting longer would only pile more callers onto a saturated backend
+            throw new StorageBusyException("Storage is busy: no upload slot within " + limits.slotWait());
+        }
+        try {
+            return httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Upload to Supabase interrupted");
+        } finally {
+            slots.release();
         }
+    }
+
+    // Exponential with "equal jitter": half the step fixed, half random, so retries spread out
+    private void backoff(int attempt) throws IOException {
+        long step = Math.min(MAX_BACKOFF.toMillis(), limits.backoffBase().toMillis() << Math.min(attempt - 1, 16));
+        long sleep = step / 2 + ThreadLocalRandom.current().nextLong(step / 2 + 1);
+        try {
+            Thread.sleep(sleep);
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted between upload attempts");
+        }
+    }
+
+    private static boolean isRetryable(int status) {
+        return status == 429 || status >= 500;
+    }
+
+    public static class StorageBusyException extends IOException {
+        public StorageBusyException(String message) {
+            super(message);
+        }
+    }
 
-        // Public URL for your bucket (note the `/public/` part)
+    // Public URL for your bucket (note the `/public/` part)
+    private String publicUrl(String fileName) {
         return projectUrl + "/storage/v1/object/public/" + bucketName + "/" + fileName;
     }
-}
\ No newline at end of file
+
+    private static boolean isDuplicate(HttpResponse<String> response) {
+        if (response.statusCode() == 409) return true;
+        return response.statusCode() == 400 && response.body() != null && response.body().contains("Duplicate");
+    }
+
+    // ".jpg" from "race.jpg"; "" when there is none
+    public static String extension(String originalFilename) {
+        if (originalFilename == null || !originalFilename.contains(".")) return "";
+        return originalFilename.substring(originalFilename.lastIndexOf("."));
+    }
+
+    // ✅ Reads the part lazily in small buffers; never the whole file at once
+    private static HttpRequest.BodyPublisher streamingBody(MultipartFile file) {
+        if (file.getSize() <= 0) return HttpRequest.BodyPublishers.noBody();
+        HttpRequest.BodyPublisher chunks = HttpRequest.BodyPublishers.ofInputStream(() -> open(file));
+        return HttpRequest.BodyPublishers.fromPublisher(chunks, file.getSize());
+    }
+
+    private static InputStream open(MultipartFile file) {
+        try {
+            return file.getInputStream();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.demo.service;
+
+import com.example.demo.model.Parent;
+import com.example.demo.model.Race;
+import com.example.demo.model.Racer;
+import com.example.demo.model.Registration;
+import com.example.demo.repository.ParentRepository;
+import com.example.demo.repository.RaceRepository;
+import com.example.demo.repository.RacerRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Many parents hitting "register" for the same capped race at once: exactly the capacity
+ * gets seats, everyone else is waitlisted, and a freed seat goes to the oldest waitlist entry.
+ */
+@SpringBootTest
+class RaceCapacityServiceConcurrencyTest {
+
+    private static final int RACERS = 12;
+    private static final int CAPACITY = 5;
+
+    @Autowired private RegistrationService registrationService;
+    @Autowired private RaceCapacityService raceCapacityService;
+    @Autowired private ParentRepository parentRepository;
+    @Autowired private RacerRepository racerRepository;
+    @Autowired private RaceRepository raceRepository;
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void concurrentSignUpsFillCapacityAndTheRestAreWaitlisted() throws Exception {
+        Parent parent = new Parent();
+        parent.setFirstName("Cap");
+        parent.setLastName("Test");
+        parent.setEmail("capacity-" + UUID.randomUUID() + "@example.com");
+        parent.setPassword("not-used");
+        parent = parentRepository.save(parent);
+
+        Race race = new Race("Capacity test", "Test track", LocalDate.now().plusDays(7), null);
+        race.setCapacity(CAPACITY);
+        Long raceId = raceRepository.save(race).getId();
+
+        List<Long> racerIds = new ArrayList<>();
+        for (int i = 0; i < RACERS; i++) {
+            Racer racer = new Racer();
+            racer.setFirstName("Racer");
+            racer.setLastName("Number" + i);
+            racer.setAge(7);
+            racer.setParent(parent);
+            racerIds.add(racerRepository.save(racer).getId());
+        }
+
+        // All threads are released together so the reservations genuinely overlap
+        Long parentId = parent.getId();
+        CountDownLatch go = new CountDownLatch(1);
+        ExecutorService callers = Executors.newFixedThreadPool(RACERS);
+        List<RegistrationService.Outcome> outcomes = new ArrayList<>();
+        try {
+            List<Future<RegistrationService.Outcome>> calls = new ArrayList<>();
+            for (Long racerId : racerIds) {
+                calls.add(callers.submit(() -> {
+                    go.await();
+                    return registrationService.register(parentId, racerId, raceId);
+                }));
+            }
+            go.countDown();
+            for (Future<RegistrationService.Outcome> call : calls) {
+                outcomes.add(call.get());
+            }
+        } finally {
+            callers.shutdownNow();
+        }
+
+        assertEquals(CAPACITY, outcomes.stream().filter(o -> o.status() == RegistrationService.Status.CREATED).count());
+        assertEquals(RACERS - CAPACITY, outcomes.stream().filter(o -> o.status() == RegistrationService.Status.WAITLISTED).count());
+        assertEquals(CAPACITY, countWithStatus(raceId, Registration.REGISTERED));
+        assertEquals(RACERS - CAPACITY, countWithStatus(raceId, Registration.WAITLISTED));
+
+        // Free one seat the way the delete endpoints do, then let the capacity service catch up
+        Long oldestWaitlisted = firstWithStatus(raceId, Registration.WAITLISTED);
+        jdbcTemplate.update("delete from registration where id = ?", firstWithStatus(raceId, Registration.REGISTERED));
+        raceCapacityService.registrationsRemoved(List.of(raceId)); // no transaction here, so it runs now
+
+        assertEquals(Registration.REGISTERED, jdbcTemplate.queryForObject(
+                "select status from registration where id = ?", String.class, oldestWaitlisted));
+        assertEquals(CAPACITY, countWithStatus(raceId, Registration.REGISTERED));
+        assertEquals(RACERS - CAPACITY - 1, countWithStatus(raceId, Registration.WAITLISTED));
+    }
+
+    private long countWithStatus(Long raceId, String status) {
+        return jdbcTemplate.queryForObject(
+                "select count(*) from registration where race_id = ? and status = ?", Long.class, raceId, status);
+    }
+
+    private Long firstWithStatus(Long raceId, String status) {
+        return jdbcTemplate.queryForObject(
+                "select min(id) from registration where race_id = ? and status = ?", Long.class, raceId, status);
+    }
+}
@@ -0,0 +1,177 @@
+package com.example.demo.service;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Timeouts, retries and the concurrency bound, against a local stub storage server
+ * that can be told to be slow or to fail.
+ */
+class SupabaseStorageServiceRetryTest {
+
+    // Short timeouts/backoff so the suite stays fast
+    private static final SupabaseStorageService.Limits FAST = new SupabaseStorageService.Limits(
+            Duration.ofSeconds(2), Duration.ofMillis(300), 4, Duration.ofSeconds(5), 3, Duration.ofMillis(10));
+
+    private interface Behaviour {
+        void handle(HttpExchange exchange, int attempt) throws Exception;
+    }
+
+    private HttpServer server;
+    private ExecutorService serverThreads;
+    private String baseUrl;
+    private volatile Behaviour behaviour;
+
+    private final AtomicInteger attempts = new AtomicInteger();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+
+    @BeforeEach
+    void startStub() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        serverThreads = Executors.newCachedThreadPool();
+        server.setExecutor(serverThreads);
+        server.createContext("/storage/v1/object/", exchange -> {
+            int attempt = attempts.incrementAndGet();
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            try {
+                exchange.getRequestBody().transferTo(OutputStream.nullOutputStream());
+                behaviour.handle(exchange, attempt);
+            } catch (Exception ignored) {
+                // client gave up (timeout) while we were stalling
+            } finally {
+                inFlight.decrementAndGet();
+                exchange.close();
+            }
+        });
+        server.start();
+        baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    @AfterEach
+    void stopStub() {
+        server.stop(0);
+        serverThreads.shutdownNow();
+    }
+
+    private SupabaseStorageService storage(SupabaseStorageService.Limits limits) {
+        return new SupabaseStorageService(baseUrl, "test-key", "photos", limits);
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes();
+        exchange.sendResponseHeaders(status, bytes.length == 0 ? -1 : bytes.length);
+        if (bytes.length > 0) exchange.getResponseBody().write(bytes);
+    }
+
+    @Test
+    void slowAttemptTimesOutAndIsRetried() throws Exception {
+        behaviour = (ex, attempt) -> {
+            if (attempt == 1) Thread.sleep(2_000);
+            respond(ex, 200, "{\"Key\":\"ok\"}");
+        };
+
+        String url = storage(FAST).uploadBytes("a.jpg", new byte[] { 1, 2, 3 }, "image/jpeg");
+
+        assertTrue(url.endsWith("/photos/a.jpg"));
+        assertEquals(2, attempts.get());
+    }
+
+    @Test
+    void serverErrorsAreRetriedUpToMaxAttempts() {
+        behaviour = (ex, attempt) -> respond(ex, 503, "");
+
+        assertThrows(RuntimeException.class,
+                () -> storage(FAST).uploadBytes("b.jpg", new byte[] { 1 }, "image/jpeg"));
+        assertEquals(3, attempts.get());
+    }
+
+    @Test
+    void clientErrorsAreNotRetried() {
+        behaviour = (ex, attempt) -> respond(ex, 403, "{\"error\":\"Unauthorized\"}");
+
+        assertThrows(RuntimeException.class,
+                () -> storage(FAST).uploadBytes("c.jpg", new byte[] { 1 }, "image/jpeg"));
+        assertEquals(1, attempts.get());
+    }
+
+    @Test
+    void retryOfAnUploadThatLandedSucceeds() throws Exception {
+        // First attempt is stored but the answer is lost as a 502; the retry sees the object
+        behaviour = (ex, attempt) -> {
+            if (attempt == 1) respond(ex, 502, "");
+            else respond(ex, 400, "{\"statusCode\":\"409\",\"error\":\"Duplicate\"}");
+        };
+
+        String url = storage(FAST).uploadBytes("d.jpg", new byte[] { 1 }, "image/jpeg");
+
+        assertTrue(url.endsWith("/photos/d.jpg"));
+        assertEquals(2, attempts.get());
+    }
+
+    @Test
+    void concurrentUploadsAreBounded() throws Exception {
+        behaviour = (ex, attempt) -> {
+            Thread.sleep(150);
+            respond(ex, 200, "{}");
+        };
+        SupabaseStorageService storage = storage(new SupabaseStorageService.Limits(
+                Duration.ofSeconds(2), Duration.ofSeconds(5), 2, Duration.ofSeconds(10), 1, Duration.ofMillis(10)));
+
+        ExecutorService callers = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<String>> uploads = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                String name = "e" + i + ".jpg";
+                uploads.add(callers.submit(() -> storage.uploadBytes(name, new byte[] { 1 }, "image/jpeg")));
+            }
+            for (Future<String> upload : uploads) {
+                assertNotNull(upload.get());
+            }
+        } finally {
+            callers.shutdownNow();
+        }
+
+        assertEquals(8, attempts.get());
+        assertTrue(maxInFlight.get() <= 2, "at most 2 uploads on the wire, saw " + maxInFlight.get());
+    }
+
+    @Test
+    void saturatedStorageFailsFastInsteadOfQueueingForever() throws Exception {
+        behaviour = (ex, attempt) -> {
+            Thread.sleep(1_000);
+            respond(ex, 200, "{}");
+        };
+        SupabaseStorageService storage = storage(new SupabaseStorageService.Limits(
+                Duration.ofSeconds(2), Duration.ofSeconds(5), 1, Duration.ofMillis(100), 1, Duration.ofMillis(10)));
+
+        ExecutorService callers = Executors.newSingleThreadExecutor();
+        try {
+            Future<String> first = callers.submit(() -> storage.uploadBytes("f1.jpg", new byte[] { 1 }, "image/jpeg"));
+            Thread.sleep(200); // first upload now holds the only slot
+
+            assertThrows(SupabaseStorageService.StorageBusyException.class,
+                    () -> storage.uploadBytes("f2.jpg", new byte[] { 1 }, "image/jpeg"));
+            assertNotNull(first.get());
+        } finally {
+            callers.shutdownNow();
+        }
+        assertEquals(1, attempts.get());
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.demo.service;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Uploads against a local stub storage server that records what it received.
+ */
+class SupabaseStorageServiceTest {
+
+    private HttpServer server;
+    private String baseUrl;
+
+    private final AtomicReference<String> receivedPath = new AtomicReference<>();
+    private final AtomicReference<String> receivedLength = new AtomicReference<>();
+    private final AtomicReference<String> receivedEncoding = new AtomicReference<>();
+    private final AtomicReference<String> receivedAuth = new AtomicReference<>();
+    private final AtomicReference<byte[]> receivedBody = new AtomicReference<>();
+
+    @BeforeEach
+    void startStub() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/storage/v1/object/", exchange -> {
+            receivedPath.set(exchange.getRequestURI().getPath());
+            receivedLength.set(exchange.getRequestHeaders().getFirst("Content-Length"));
+            receivedEncoding.set(exchange.getRequestHeaders().getFirst("Transfer-Encoding"));
+            receivedAuth.set(exchange.getRequestHeaders().getFirst("Authorization"));
+
+            ByteArrayOutputStream body = new ByteArrayOutputStream();
+            try (InputStream in = exchange.getRequestBody()) {
+                in.transferTo(body);
+            }
+            receivedBody.set(body.toByteArray());
+
+            byte[] ok = "{\"Key\":\"ok\"}".getBytes();
+            exchange.sendResponseHeaders(200, ok.length);
+            exchange.getResponseBody().write(ok);
+            exchange.close();
+        });
+        server.start();
+        baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    @AfterEach
+    void stopStub() {
+        server.stop(0);
+    }
+
+    @Test
+    void streamsEveryByteWithContentLength() throws Exception {
+        byte[] photo = new byte[3 * 1024 * 1024 + 17];
+        new Random(42).nextBytes(photo);
+        MockMultipartFile file = new MockMultipartFile("file", "race.jpg", "image/jpeg", photo);
+
+        SupabaseStorageService storage = new SupabaseStorageService(baseUrl, "test-key", "photos");
+        String publicUrl = storage.uploadImage(file);
+
+        assertArrayEquals(photo, receivedBody.get());
+        assertEquals(String.valueOf(photo.length), receivedLength.get());
+        assertNull(receivedEncoding.get());
+        assertEquals("Bearer test-key", receivedAuth.get());
+        assertTrue(receivedPath.get().startsWith("/storage/v1/object/photos/"));
+        assertTrue(receivedPath.get().endsWith(".jpg"));
+        assertTrue(publicUrl.startsWith(baseUrl + "/storage/v1/object/public/photos/"));
+    }
+
+    @Test
+    void rejectedUploadThrows() {
+        server.removeContext("/storage/v1/object/");
+        server.createContext("/storage/v1/object/", exchange -> {
+            exchange.getRequestBody().transferTo(OutputStream.nullOutputStream());
+            exchange.sendResponseHeaders(403, -1);
+            exchange.close();
+        });
+
+        MockMultipartFile file = new MockMultipartFile("file", "race.png", "image/png", new byte[] { 1, 2, 3 });
+        SupabaseStorageService storage = new SupabaseStorageService(baseUrl, "bad-key", "photos");
+
+        assertThrows(RuntimeException.class, () -> storage.uploadImage(file));
+    }
+}
@@ -14,32 +14,41 @@ const fmt = (iso) => {
 
 export default function AdminAuditLog() {
     const [q, setQ] = useState("");
-    const [page, setPage] = useState(0);
+    const [term, setTerm] = useState(""); // submitted search term
     const [size, setSize] = useState(25);
 
-    const [data, setData] = useState(null); // Spring Page object
+    // ✅ Keyset paging: cursors[i] is the cursor that loads page i (page 0 = null)
+    const [cursors, setCursors] = useState([null]);
+    const [page, setPage] = useState(0);
+
+    const [data, setData] = useState(null); // { items, nextCursor }
     const [loading, setLoading] = useState(true);
     const [error, setError] = useState("");
 
-    const totalPages = data?.totalPages ?? 0;
-    const content = data?.content ?? [];
+    const content = data?.items ?? [];
 
     const canPrev = page > 0;
-    const canNext = page + 1 < totalPages;
+    const canNext = !!data?.nextCursor;
 
     const queryParams = useMemo(() => {
         const params = new URLSearchParams();
-        if (q.trim()) params.set("q", q.trim());
-        params.set("page", String(page));
+        if (term) params.set("term", term);
         params.set("size", String(size));
+        const cursor = cursors[page];
+        if (cursor) params.set("cursor", cursor);
         return params.toString();
-    }, [q, page, size]);
+    }, [term, size, cursors, page]);
+
+    const resetPaging = () => {
+        setCursors([null]);
+        setPage(0);
+    };
 
     const fetchAudit = async () => {
         try {
             setLoading(true);
             setError("");
-            const res = await apiClient.get(`/admin/audit?${queryParams}`);
+            const res = await apiClient.get(`/admin/audit/events?${queryParams}`);
             setData(res.data);
         } catch (err) {
             console.error(err);
@@ -56,10 +65,8 @@ export default function AdminAuditLog() {
 
     const onSubmitSearch = (e) => {
         e.preventDefault();
-        setPage(0); // reset paging when searching
-        // no need to manually call fetchAudit; queryParams change triggers it,
-        // but it doesn't hurt—keeping it clean:
-        void fetchAudit();
+        resetPaging(); // reset paging when searching
+        setTerm(q.trim());
     };
 
     return (
@@ -78,7 +85,7 @@ export default function AdminAuditLog() {
                             type="text"
                             value={q}
                             onChange={(e) => setQ(e.target.value)}
-                            placeholder="Search admin, path, method, status, details…"
+                            placeholder="Search admin, path, method, status, details (whole words)…"
                             aria-label="Search audit log"
                         />
                         <button type="submit">Search</button>
@@ -86,7 +93,7 @@ export default function AdminAuditLog() {
                         <select
                             value={size}
                             onChange={(e) => {
-                                setPage(0);
+                                resetPaging();
                                 setSize(Number(e.target.value));
                             }}
                             aria-label="Rows per page"
@@ -112,13 +119,16 @@ export default function AdminAuditLog() {
                         </button>
 
                         <span className="audit-pageinfo">
-              Page <b>{page + 1}</b> of <b>{Math.max(totalPages, 1)}</b>
+              Page <b>{page + 1}</b>
             </span>
 
                         <button
                             type="button"
                             disabled={!canNext}
-                            onClick={() => setPage((p) => p + 1)}
+                            onClick={() => {
+                                setCursors((prev) => [...prev.slice(0, page + 1), data.nextCursor]);
+                                setPage((p) => p + 1);
+                            }}
                         >
                             Next →
                         </button>
@@ -83,9 +83,9 @@ const AdminDashboard = () => {
             try {
                 setLoading(true);
 
-                // --- Load racers ---
-                const racersRes = await apiClient.get("/admin/racers"); // GET /api/admin/racers
-                const racers = racersRes.data || [];
+                // --- Racer totals (grouped server-side; no need to ship every racer) ---
+                const countsRes = await apiClient.get("/admin/racers/division-counts"); // [{ division, age, count }]
+                const groups = countsRes.data || [];
 
                 // Count divisions (match your DB / app strings)
                 const counts = {
@@ -96,13 +96,16 @@ const AdminDashboard = () => {
                     "Lil Stingers": 0,
                 };
 
-                racers.forEach((r) => {
+                let totalRacers = 0;
+                groups.forEach((g) => {
                     // Prefer stored division if present (especially for age 7 selection)
-                    const stored = r?.division ? String(r.division).trim() : "";
-                    const div = stored ? stored : getDivisionFromAge(r?.age);
+                    const stored = g?.division ? String(g.division).trim() : "";
+                    const div = stored ? stored : getDivisionFromAge(g?.age);
+                    const n = Number(g?.count) || 0;
 
+                    totalRacers += n;
                     if (counts[div] !== undefined) {
-                        counts[div] += 1;
+                        counts[div] += n;
                     }
                 });
 
@@ -133,7 +136,7 @@ const AdminDashboard = () => {
                 // Set state
                 setDivisionCounts(counts);
                 setStats({
-                    totalRacers: racers.length,
+                    totalRacers,
                     totalRegistrations: registrationsCount,
                     upcomingRaces: upcomingCount,
                 });
@@ -5,6 +5,8 @@ import Modal from "../components/Modal";
 import apiClient from "../utils/apiClient";
 // import "../styles/GalleryManagement.css";
 
+const PAGE_SIZE = 24;
+
 const emptyForm = {
     id: null,
     title: "",
@@ -14,6 +16,8 @@ const emptyForm = {
 
 const GalleryManagement = () => {
     const [photos, setPhotos] = useState([]);
+    const [nextCursor, setNextCursor] = useState(null);
+    const [loadingMore, setLoadingMore] = useState(false);
     const [loading, setLoading] = useState(true);
     const [error, setError] = useState("");
 
@@ -26,8 +30,10 @@ const GalleryManagement = () => {
         const loadPhotos = async () => {
             try {
                 setLoading(true);
-                const res = await apiClient.get("/photos");
-                setPhotos(res.data || []);
+                // ✅ Newest first, one keyset page at a time (first page is cached server-side)
+                const res = await apiClient.get(`/photos?size=${PAGE_SIZE}`);
+                setPhotos(res.data?.items || []);
+                setNextCursor(res.data?.nextCursor || null);
                 setError("");
             } catch (err) {
                 console.error("Error loading photos:", err);
@@ -40,6 +46,23 @@ const GalleryManagement = () => {
         loadPhotos();
     }, []);
 
+    const loadMore = async () => {
+        if (!nextCursor || loadingMore) return;
+        try {
+            setLoadingMore(true);
+            const res = await apiClient.get(
+                `/photos?size=${PAGE_SIZE}&cursor=${encodeURIComponent(nextCursor)}`
+            );
+            setPhotos((prev) => [...prev, ...(res.data?.items || [])]);
+            setNextCursor(res.data?.nextCursor || null);
+        } catch (err) {
+            console.error("Error loading more photos:", err);
+            setError("Could not load more photos.");
+        } finally {
+            setLoadingMore(false);
+        }
+    };
+
     const openAddModal = () => {
         setEditingPhoto(null);
         setForm(emptyForm);
@@ -109,7 +132,7 @@ const GalleryManagement = () => {
                     savedPhoto = res.data;
                 }
 
-                setPhotos((prev) => [...prev, savedPhoto]);
+                setPhotos((prev) => [savedPhoto, ...prev]);
             } else {
                 // ✏️ EDIT EXISTING
                 let updatedPayload = {
@@ -171,7 +194,23 @@ const GalleryManagement = () => {
                         ) : (
                             photos.map((photo) => (
                                 <div key={photo.id} className="gallery-card-admin">
-                                    <img src={photo.imageUrl} alt={photo.title || "Race"} />
+                                    {/* ✅ Small variant for the grid (falls back to the original until it's ready) */}
+                                    <img
+                                        src={photo.thumbUrl || photo.imageUrl}
+                                        srcSet={photo.thumbUrl && photo.mediumUrl
+                                            ? `${photo.thumbUrl} ${photo.thumbWidth}w, ${photo.mediumUrl} ${photo.mediumWidth}w`
+                                            : undefined}
+                                        sizes="(max-width: 600px) 100vw, 320px"
+                                        width={photo.thumbWidth || undefined}
+                                        height={photo.thumbHeight || undefined}
+                                        loading="lazy"
+                                        decoding="async"
+                                        style={photo.placeholder ? {
+                                            backgroundImage: `url(${photo.placeholder})`,
+                                            backgroundSize: "cover",
+                                        } : undefined}
+                                        alt={photo.title || "Race"}
+                                    />
                                     <div className="gallery-card-body">
                                         <div className="gallery-card-title">{photo.title}</div>
                                         {photo.caption && (
@@ -199,6 +238,12 @@ const GalleryManagement = () => {
                         )}
                     </div>
                 )}
+
+                {!loading && nextCursor && (
+                    <button className="add-btn" onClick={loadMore} disabled={loadingMore}>
+                        {loadingMore ? "Loading..." : "Load more"}
+                    </button>
+                )}
             </div>
 
             {/* Modal for Add/Edit Photo */}
@@ -6,7 +6,7 @@ import apiClient from "../utils/apiClient";
 import { formatRaceDate } from "../utils/dateUtils";
 import sponsorsData from "../data/SponsorsData";
 import galleryPhotos from "../data/GalleryData";
-import { buildStandingsFromFlatResults, DIVISIONS} from "../utils/standingUtils";
+import { DIVISIONS } from "../utils/standingUtils";
 
 const Home = () => {
 
@@ -91,10 +91,9 @@ const Home = () => {
                 setLoadingStandings(true);
                 setStandingsError("");
 
-                const res = await apiClient.get("/results");
-                const flat = res.data || [];
-
-                const standingsByDivision = buildStandingsFromFlatResults(flat);
+                // ✅ Backend returns standings already scored + sorted per division
+                const res = await apiClient.get("/standings");
+                const standingsByDivision = res.data || {};
 
                 // Turn into the same structure your Home UI expects:
                 // [{ division, leaders: [{ position, name, points }] }]
@@ -1,7 +1,7 @@
 // frontend/src/pages/ParentDashboard.js
 import React, { useMemo, useState, useEffect } from "react";
 import { useNavigate } from "react-router-dom";
-import apiClient from "../utils/apiClient";
+import apiClient, { postIdempotent } from "../utils/apiClient";
 import "../styles/ParentDashboard.css";
 import { formatRaceDate } from "../utils/dateUtils";
 import DeleteRacerConfirmModal from "../components/DeleteRacerConfirmModal"; // ✅
@@ -364,12 +364,14 @@ function ParentDashboard() {
 
         try {
             if (checked) {
-                const res = await apiClient.post("/registrations", { racerId, raceId });
+                const res = await postIdempotent("/registrations", { racerId, raceId });
                 setRegistrations((prev) => ({
                     ...prev,
                     [key]: res.data,
                 }));
-                setStatusMessage("🏁 Racer registered for race!");
+                setStatusMessage(res.data?.status === "WAITLISTED"
+                    ? "⏳ Race is full — racer added to the waitlist."
+                    : "🏁 Racer registered for race!");
             } else {
                 const existing = registrations[key];
                 if (!existing) return;
@@ -391,6 +393,57 @@ function ParentDashboard() {
         }
     };
 
+    // ✅ One call for the whole season: every racer x every race
+    const handleRegisterAll = async () => {
+        // ✅ Upcoming races only (race.date is "YYYY-MM-DD"; compare against today's local date)
+        const now = new Date();
+        const todayIso = `${now.getFullYear()}-${String(now.getMonth() + 1).padStart(2, "0")}-${String(now.getDate()).padStart(2, "0")}`;
+        const upcomingRaceIds = races
+            .filter((race) => race.date && race.date >= todayIso)
+            .map((race) => race.id);
+
+        if (upcomingRaceIds.length === 0) {
+            setStatusMessage("No upcoming races to register for.");
+            setTimeout(() => setStatusMessage(""), 2500);
+            return;
+        }
+
+        try {
+            const res = await postIdempotent("/registrations/bulk", {
+                racerIds: racers.map((r) => r.id),
+                raceIds: upcomingRaceIds,
+            });
+
+            const outcomes = res.data || [];
+            setRegistrations((prev) => {
+                const copy = { ...prev };
+                outcomes.forEach((o) => {
+                    if (o.registrationId) {
+                        copy[`${o.racerId}|${o.raceId}`] = {
+                            id: o.registrationId,
+                            racerId: o.racerId,
+                            raceId: o.raceId,
+                            status: o.status === "WAITLISTED" ? "WAITLISTED" : (prev[`${o.racerId}|${o.raceId}`]?.status || "REGISTERED"),
+                        };
+                    }
+                });
+                return copy;
+            });
+
+            const created = outcomes.filter((o) => o.status === "CREATED").length;
+            const waitlisted = outcomes.filter((o) => o.status === "WAITLISTED").length;
+            setStatusMessage(created + waitlisted > 0
+                ? `🏁 Registered ${created} new race entr${created === 1 ? "y" : "ies"}`
+                    + (waitlisted > 0 ? `, ${waitlisted} waitlisted` : "") + "!"
+                : "✅ Everyone is already registered.");
+        } catch (err) {
+            console.error("Error registering for all races:", err);
+            setStatusMessage("❌ Error updating registrations.");
+        } finally {
+            setTimeout(() => setStatusMessage(""), 2500);
+        }
+    };
+
     // === Co-parent / Guardian invite ===
     const handleInviteSubmit = async (e) => {
         e.preventDefault();
@@ -674,6 +727,11 @@ function ParentDashboard() {
             {/* === Race Registration Section === */}
             <section className="race-registration">
                 <h2>Race Registrations</h2>
+                {racers.length > 0 && races.length > 0 && (
+                    <button type="button" className="register-all-btn" onClick={handleRegisterAll}>
+                        Register all racers for every race
+                    </button>
+                )}
                 {racers.length === 0 ? (
                     <p>Add a racer above to start registering for events.</p>
                 ) : races.length === 0 ? (
@@ -690,6 +748,7 @@ function ParentDashboard() {
                                 {races.map((race) => {
                                     const key = `${racer.id}|${race.id}`;
                                     const isRegistered = !!registrations[key];
+                                    const isWaitlisted = registrations[key]?.status === "WAITLISTED";
 
                                     return (
                                         <div key={race.id} className={`race-item ${isRegistered ? "registered" : ""}`}>
@@ -700,6 +759,7 @@ function ParentDashboard() {
                                                     onChange={(e) => handleRaceRegistration(racer.id, race.id, e.target.checked)}
                                                 />
                                                 {`${race.name} — ${formatRaceDate(race.date)}`}
+                                                {isWaitlisted && " (waitlisted)"}
                                             </label>
                                         </div>
                                     );
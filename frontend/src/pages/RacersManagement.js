@@ -6,6 +6,8 @@ import apiClient from "../utils/apiClient";
 import "../styles/RacersManagement.css";
 import DeleteRacerConfirmModal from "../components/DeleteRacerConfirmModal";
 
+const PAGE_SIZE = 50;
+
 const DIVISIONS = {
     THREE: "3 Year Old Division",
     FOUR: "4 Year Old Division",
@@ -61,6 +63,8 @@ const getGuardianEmail = (racer) => {
 
 const RacersManagement = () => {
     const [racers, setRacers] = useState([]);
+    const [nextCursor, setNextCursor] = useState(null);
+    const [loadingMore, setLoadingMore] = useState(false);
     const [loading, setLoading] = useState(true);
     const [error, setError] = useState("");
 
@@ -90,9 +94,10 @@ const RacersManagement = () => {
             setLoading(true);
             setError("");
 
-            // returns RacerSearchDto: { id, firstName, lastName, carNumber, age, parentEmail }
-            const res = await apiClient.get("/admin/racers");
-            setRacers(res.data || []);
+            // ✅ One keyset page at a time: { items: RacerSearchDto[], nextCursor }
+            const res = await apiClient.get(`/admin/racers?size=${PAGE_SIZE}`);
+            setRacers(res.data?.items || []);
+            setNextCursor(res.data?.nextCursor || null);
         } catch (err) {
             console.error("Error loading admin racers:", err);
             setError("Could not load racers. Please try again.");
@@ -101,6 +106,23 @@ const RacersManagement = () => {
         }
     };
 
+    const loadMore = async () => {
+        if (!nextCursor || loadingMore) return;
+        try {
+            setLoadingMore(true);
+            const res = await apiClient.get(
+                `/admin/racers?size=${PAGE_SIZE}&cursor=${encodeURIComponent(nextCursor)}`
+            );
+            setRacers((prev) => [...prev, ...(res.data?.items || [])]);
+            setNextCursor(res.data?.nextCursor || null);
+        } catch (err) {
+            console.error("Error loading more racers:", err);
+            setError("Could not load more racers.");
+        } finally {
+            setLoadingMore(false);
+        }
+    };
+
     useEffect(() => {
         void fetchRacers();
     }, []);
@@ -282,6 +304,12 @@ const RacersManagement = () => {
                         </table>
                     </div>
                 )}
+
+                {!loading && !error && nextCursor && (
+                    <button className="add-btn" onClick={loadMore} disabled={loadingMore}>
+                        {loadingMore ? "Loading..." : "Load more"}
+                    </button>
+                )}
             </div>
 
             <Modal
@@ -180,6 +180,9 @@ const RegistrationsManagement = () => {
 
                     parentEmail: row?.parentEmail ?? row?.parent_email ?? null,
 
+                    // ✅ REGISTERED (has a seat) or WAITLISTED (race/division full)
+                    status: row?.status ?? "REGISTERED",
+
                     // Optional fields if backend sends them
                     racerName: row?.racerName ?? null,
                     division: row?.racerDivision ?? row?.division ?? null,
@@ -265,6 +268,9 @@ const RegistrationsManagement = () => {
 
         for (const [raceIdNum, rows] of m.entries()) {
             rows.sort((a, b) => {
+                // Waitlisted entries after everyone with a seat
+                const w = (a.status === "WAITLISTED") - (b.status === "WAITLISTED");
+                if (w !== 0) return w;
                 const d = divisionRank(a.division) - divisionRank(b.division);
                 if (d !== 0) return d;
                 return toCarNumberInt(a.carNumber) - toCarNumberInt(b.carNumber);
@@ -462,7 +468,7 @@ const RegistrationsManagement = () => {
                         const car = row?.carNumber ? `#${String(row.carNumber).replace(/^#/, "")}` : "-";
                         return `
         <tr>
-          <td>${escapeHtml(row?.racerName || "-")}</td>
+          <td>${escapeHtml(row?.racerName || "-")}${row?.status === "WAITLISTED" ? " <i>(waitlist)</i>" : ""}</td>
           <td>${escapeHtml(car)}</td>
           <td>${escapeHtml(row?.division || "-")}</td>
           <td>${escapeHtml(getGuardianDisplay(row))}</td>
@@ -558,6 +564,7 @@ const RegistrationsManagement = () => {
                                         <th>Car #</th>
                                         <th>Division</th>
                                         <th>Parent</th>
+                                        <th>Status</th>
                                         <th style={{ textAlign: "right" }}>Actions</th>
                                     </tr>
                                     </thead>
@@ -565,7 +572,7 @@ const RegistrationsManagement = () => {
                                     <tbody>
                                     {rows.length === 0 ? (
                                         <tr>
-                                            <td colSpan="5">No registrations for this race yet.</td>
+                                            <td colSpan="6">No registrations for this race yet.</td>
                                         </tr>
                                     ) : (
                                         rows.map((row) => (
@@ -574,6 +581,7 @@ const RegistrationsManagement = () => {
                                                 <td>{row.carNumber ? `#${String(row.carNumber).replace(/^#/, "")}` : "-"}</td>
                                                 <td>{row.division || "-"}</td>
                                                 <td>{row.parentEmail || "-"}</td>
+                                                <td>{row.status === "WAITLISTED" ? "⏳ Waitlisted" : "Registered"}</td>
                                                 <td style={{ textAlign: "right" }}>
                                                     <button
                                                         className="delete-btn"
@@ -1,7 +1,7 @@
 import React, { useState, useEffect, useMemo } from "react";
 import "../styles/Results.css";
 import apiClient from "../utils/apiClient";
-import { buildStandingsFromFlatResults, DIVISIONS } from "../utils/standingUtils";
+import { DIVISIONS } from "../utils/standingUtils";
 
 
 const getMedal = (place) => {
@@ -20,6 +20,7 @@ const renderPlaceCell = (place) => (
 
 const Results = () => {
     const [results, setResults] = useState([]); // [{ race, date, results: [{name, division, placement}] }]
+    const [standings, setStandings] = useState({}); // { [division]: [{ name, points, races, ... }] } (server-sorted)
     const [selectedRace, setSelectedRace] = useState("All");
     const [loading, setLoading] = useState(true);
     const [error, setError] = useState("");
@@ -30,8 +31,13 @@ const Results = () => {
                 setLoading(true);
                 setError("");
 
-                const res = await apiClient.get("/results");
+                // ✅ Standings are pre-computed + sorted by the backend
+                const [res, standingsRes] = await Promise.all([
+                    apiClient.get("/results"),
+                    apiClient.get("/standings"),
+                ]);
                 const flat = res.data || [];
+                setStandings(standingsRes.data || {});
 
                 // Group by raceName
                 const grouped = {};
@@ -99,22 +105,6 @@ const Results = () => {
         });
     };
 
-    const standings = useMemo(() => {
-        const flat = [];
-
-        results.forEach((race) => {
-            (race.results || []).forEach((r) => {
-                flat.push({
-                    division: r.division,
-                    racerName: r.name,
-                    placement: r.placement,
-                });
-            });
-        });
-
-        return buildStandingsFromFlatResults(flat);
-    }, [results]);
-
     return (
         <div className="results-container">
             <h1>
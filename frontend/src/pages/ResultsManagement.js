@@ -1,6 +1,6 @@
 import React, { useEffect, useMemo, useState } from "react";
 import Layout from "../components/Layout";
-import apiClient from "../utils/apiClient";
+import apiClient, { getAllPages } from "../utils/apiClient";
 import "../styles/ResultsManagement.css";
 
 const DIVISIONS = [
@@ -60,14 +60,6 @@ const tryGet = async (adminPath, fallbackPath) => {
     }
 };
 
-const tryPost = async (adminPath, fallbackPath, payload) => {
-    try {
-        return await apiClient.post(adminPath, payload);
-    } catch {
-        return await apiClient.post(fallbackPath, payload);
-    }
-};
-
 const tryDelete = async (adminPath, fallbackPath) => {
     try {
         return await apiClient.delete(adminPath);
@@ -131,8 +123,13 @@ const ResultsManagement = () => {
                 mappedRaces.sort((a, b) => new Date(a.raceDate || 0) - new Date(b.raceDate || 0));
                 setRaces(mappedRaces);
 
-                // Racers (admin ideally = all racers; fallback = parent's racers)
-                const racersData = await tryGet("/admin/racers", "/racers");
+                // Racers (admin = every racer, walked page by page; fallback = parent's racers)
+                let racersData;
+                try {
+                    racersData = await getAllPages("/admin/racers");
+                } catch {
+                    racersData = (await apiClient.get("/racers")).data || [];
+                }
                 setRacers(racersData);
 
                 // Results
@@ -286,6 +283,7 @@ const ResultsManagement = () => {
                 division,
                 carNumber,
                 parentEmail: row.parentEmail ?? "-",
+                status: row.status ?? "REGISTERED",
             };
         });
     }, [raceRegistrations]);
@@ -377,31 +375,49 @@ const ResultsManagement = () => {
     const registeredRacerIdsForDivision = useMemo(() => {
         const ids = new Set();
         (normalizedRaceRegistrations || []).forEach((row) => {
-            if (!row.racerId) return;
+            if (!row.racerId || row.status === "WAITLISTED") return; // no seat, not racing
             if (row.division === activeDivision) ids.add(Number(row.racerId));
         });
         return ids;
     }, [normalizedRaceRegistrations, activeDivision]);
 
+    // ✅ Saved placements for this event + division (racerId -> place)
+    const savedPlacesForDivision = useMemo(() => {
+        const m = new Map();
+        (groupedByDivision[activeDivision] || []).forEach((row) => {
+            if (row.racerId != null && row.place) m.set(String(row.racerId), row.place);
+        });
+        return m;
+    }, [groupedByDivision, activeDivision]);
+
     // ---------------------------
     // Auto-populate registered racers for this division
     // ---------------------------
+    // Save All replaces the whole division sheet, so the grid must start from what is saved:
+    // saved places are filled in, and racers with a saved result stay even if no longer registered.
     const autoPopulateDivision = () => {
         const regRacers = (normalizedRaceRegistrations || [])
-            .filter((row) => row.division === activeDivision)
+            .filter((row) => row.division === activeDivision && row.status !== "WAITLISTED")
             .map((row) => {
                 const racerId = Number(row.racerId);
                 const racer = racersById.get(racerId);
                 const carNumber = row.carNumber ?? racer?.carNumber ?? "";
                 return { racerId: String(racerId), carNumber };
-            })
-            .sort((a, b) => toCarNumberInt(a.carNumber) - toCarNumberInt(b.carNumber));
+            });
+
+        const listed = new Set(regRacers.map((r) => r.racerId));
+        savedPlacesForDivision.forEach((_, racerId) => {
+            if (listed.has(racerId)) return;
+            listed.add(racerId);
+            regRacers.push({ racerId, carNumber: racersById.get(Number(racerId))?.carNumber ?? "" });
+        });
+        regRacers.sort((a, b) => toCarNumberInt(a.carNumber) - toCarNumberInt(b.carNumber));
 
         setBulkRows((prev) => {
             const prevByRacerId = new Map((prev || []).map((r) => [String(r.racerId), r]));
             const rows = regRacers.map((r) => ({
                 racerId: r.racerId,
-                place: prevByRacerId.get(String(r.racerId))?.place || "",
+                place: prevByRacerId.get(String(r.racerId))?.place || savedPlacesForDivision.get(r.racerId) || "",
             }));
 
             rows.push({ racerId: "", place: "" }, { racerId: "", place: "" }, { racerId: "", place: "" });
@@ -416,7 +432,7 @@ const ResultsManagement = () => {
         }
         autoPopulateDivision();
         // eslint-disable-next-line react-hooks/exhaustive-deps
-    }, [activeDivision, selectedRaceId, normalizedRaceRegistrations]);
+    }, [activeDivision, selectedRaceId, normalizedRaceRegistrations, savedPlacesForDivision]);
 
     // ---------------------------
     // Bulk entry actions
@@ -468,23 +484,26 @@ const ResultsManagement = () => {
             return;
         }
 
+        // ✅ The sheet replaces this division's saved results: say what would be removed
+        const keptIds = new Set(cleaned.map((r) => String(r.racerId)));
+        const removed = Array.from(savedPlacesForDivision.keys()).filter((id) => !keptIds.has(id)).length;
+        if (removed > 0 && !window.confirm(
+            `Saving will remove ${removed} existing result(s) for ${activeDivision} that are not in this sheet. Continue?`
+        )) {
+            return;
+        }
+
         setSaving(true);
         try {
-            for (const row of cleaned) {
-                const racer = racersById.get(Number(row.racerId));
-
-                const stored = (racer?.division || "").trim();
-                const division = stored ? stored : divisionFromAge(racer?.age);
-
-                const payload = {
-                    raceId: raceIdNum,
-                    racerId: Number(row.racerId),
-                    division,
+            // ✅ One call for the whole division sheet (replaces existing rows for this event + division)
+            await apiClient.put("/admin/results/sheet", {
+                raceId: raceIdNum,
+                division: activeDivision,
+                placements: cleaned.map((row) => ({
+                    racerId: row.racerId,
                     placement: row.place,
-                };
-
-                await tryPost("/admin/results", "/results", payload);
-            }
+                })),
+            });
 
             const refreshed = await tryGet("/admin/results", "/results");
             setResults(refreshed);
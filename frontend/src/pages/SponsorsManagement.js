@@ -127,6 +127,11 @@ const SponsorsManagement = () => {
                                             src={sponsor.logoUrl}
                                             alt={sponsor.name}
                                             className="admin-sponsor-logo"
+                                            loading="lazy"
+                                            style={sponsor.logoPlaceholder ? {
+                                                backgroundImage: `url(${sponsor.logoPlaceholder})`,
+                                                backgroundSize: "cover",
+                                            } : undefined}
                                         />
                                     ) : (
                                         <span className="no-logo">No logo</span>
@@ -59,4 +59,42 @@ apiClient.interceptors.response.use(
     }
 );
 
+// 🔁 POST that is safe to retry: one Idempotency-Key per user action, reused on every attempt,
+// so a retry after a lost response replays the first result instead of acting twice.
+// Retries only when there was no response (network/timeout) or a 5xx.
+const newIdempotencyKey = () =>
+    window.crypto?.randomUUID
+        ? window.crypto.randomUUID()
+        : `${Date.now().toString(36)}-${Math.random().toString(36).slice(2)}-${Math.random().toString(36).slice(2)}`;
+
+export const postIdempotent = async (url, body, { retries = 2 } = {}) => {
+    const headers = { "Idempotency-Key": newIdempotencyKey() };
+    for (let attempt = 0; ; attempt++) {
+        try {
+            return await apiClient.post(url, body, { headers });
+        } catch (err) {
+            const status = err?.response?.status;
+            const retryable = !err?.response || status >= 500;
+            if (!retryable || attempt >= retries) throw err;
+            await new Promise((r) => setTimeout(r, 300 * (attempt + 1)));
+        }
+    }
+};
+
+// 📄 Walk a keyset-paged endpoint ({ items, nextCursor }) to the end, one bounded page per request.
+// For screens that genuinely need the whole list (e.g. dropdowns); tables should page on demand.
+export const getAllPages = async (url, { size = 200 } = {}) => {
+    const sep = url.includes("?") ? "&" : "?";
+    const all = [];
+    let cursor = null;
+    do {
+        const res = await apiClient.get(
+            `${url}${sep}size=${size}${cursor ? `&cursor=${encodeURIComponent(cursor)}` : ""}`
+        );
+        all.push(...(res.data?.items || []));
+        cursor = res.data?.nextCursor || null;
+    } while (cursor);
+    return all;
+};
+
 export default apiClient;
\ No newline at end of file